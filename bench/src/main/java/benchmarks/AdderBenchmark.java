@@ -0,0 +1,81 @@
+package benchmarks;
+
+import coverage.Adder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// The forked JVMs get the Vector API module, otherwise addAll falls back to addAllBranchFree
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class AdderBenchmark {
+
+    @Param({"1000", "1000000"})
+    int length;
+
+    // Percentage of non-positive values, making the branches of add more or less predictable
+    @Param({"0", "50"})
+    int nonPositive;
+
+    private final Adder adder = new Adder();
+    private int[] a;
+    private int[] b;
+    private int[] out;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(0);
+        this.a = new int[this.length];
+        this.b = new int[this.length];
+        this.out = new int[this.length];
+        for (int i = 0; i < this.length; i++) {
+            this.a[i] = this.value(random);
+            this.b[i] = this.value(random);
+        }
+    }
+
+    private int value(SplittableRandom random) {
+        int value = random.nextInt(1, 1 << 20);
+        return random.nextInt(100) < this.nonPositive ? -value : value;
+    }
+
+    @Benchmark
+    public int[] addLoop() {
+        for (int i = 0; i < this.length; i++) {
+            this.out[i] = this.adder.add(this.a[i], this.b[i]);
+        }
+        return this.out;
+    }
+
+    @Benchmark
+    public int[] addAllBranchFree() {
+        this.adder.addAllBranchFree(this.a, this.b, this.out);
+        return this.out;
+    }
+
+    @Benchmark
+    public int[] addAll() {
+        this.adder.addAll(this.a, this.b, this.out);
+        return this.out;
+    }
+
+    // Summing a whole array: a sequential long loop against the parallel striped sum
+    @Benchmark
+    public long sumLoop() {
+        long sum = 0;
+        for (int value : this.a) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sum() {
+        return Adder.sum(this.a);
+    }
+}
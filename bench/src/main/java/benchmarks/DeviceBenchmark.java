@@ -0,0 +1,92 @@
+package benchmarks;
+
+import devices.Device;
+import devices.FailingPolicy;
+import devices.OnResult;
+import devices.RandomFailing;
+import devices.StandardDevice;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeviceBenchmark {
+
+    @Param({"never", "random"})
+    String policy;
+
+    private FailingPolicy failingPolicy;
+    private Device device;
+
+    static FailingPolicy policy(String name) {
+        return switch (name) {
+            case "random" -> new RandomFailing();
+            case "never" -> new FailingPolicy() {
+                @Override
+                public boolean attemptOn() {
+                    return true;
+                }
+
+                @Override
+                public void reset() {}
+
+                @Override
+                public String policyName() {
+                    return "never";
+                }
+            };
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+
+    @Setup
+    public void setUp() {
+        this.failingPolicy = policy(this.policy);
+        this.device = new StandardDevice(this.failingPolicy);
+    }
+
+    // A random policy keeps failing once it failed, so the device is reset on each failure
+    @Benchmark
+    public boolean on() {
+        try {
+            this.device.on();
+        } catch (IllegalStateException e) {
+            this.device.reset();
+        }
+        return this.device.isOn();
+    }
+
+    // The same as on(), without the exception
+    @Benchmark
+    public OnResult tryOn() {
+        OnResult result = this.device.tryOn();
+        if (result == OnResult.FAILED) {
+            this.device.reset();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean off() {
+        this.device.off();
+        return this.device.isOn();
+    }
+
+    @Benchmark
+    public boolean reset() {
+        this.device.reset();
+        return this.device.isOn();
+    }
+
+    @Benchmark
+    public boolean attemptOn() {
+        boolean result = this.failingPolicy.attemptOn();
+        this.failingPolicy.reset();
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+package benchmarks;
+
+import a01a.sol2.Logic;
+import a01a.sol2.LogicMode;
+import a01a.sol2.Position;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogicBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    // Marks placed before measuring, capped by what fits on the board without neighbours
+    @Param({"1", "10", "100"})
+    int marks;
+
+    @Param({"STANDARD", "OFFSET"})
+    LogicMode mode;
+
+    private Logic logic;
+    private Position[] cells;
+    private int[] board;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        Logger.getLogger(Logic.class.getPackageName()).setLevel(Level.OFF);
+        this.logic = this.newGame();
+        this.board = new int[this.size * this.size];
+        SplittableRandom random = new SplittableRandom(0);
+        this.cells = new Position[1024];
+        for (int i = 0; i < this.cells.length; i++) {
+            this.cells[i] = new Position(random.nextInt(this.size), random.nextInt(this.size));
+        }
+    }
+
+    // Places the marks two cells apart from each other, so that none of them makes the marks move
+    private Logic newGame() {
+        Logic game = this.mode.create(this.size);
+        for (int i = 0, placed = 0; placed < this.marks && i < this.size * this.size; i++) {
+            int x = i / this.size;
+            int y = i % this.size;
+            if (x % 2 == 0 && y % 2 == 0) {
+                game.hit(new Position(x, y));
+                placed++;
+            }
+        }
+        return game;
+    }
+
+    private Position nextCell() {
+        this.next = (this.next + 1) & (this.cells.length - 1);
+        return this.cells[this.next];
+    }
+
+    @Benchmark
+    public Optional<Integer> getMark() {
+        return this.logic.getMark(this.nextCell());
+    }
+
+    @Benchmark
+    public int getMarkPrimitive() {
+        Position cell = this.nextCell();
+        return this.logic.getMark(cell.x(), cell.y());
+    }
+
+    // Reading the whole board: a getMark per cell against one snapshot
+    @Benchmark
+    public int boardByGetMark() {
+        int sum = 0;
+        for (int x = 0; x < this.size; x++) {
+            for (int y = 0; y < this.size; y++) {
+                sum += this.logic.getMark(new Position(x, y)).orElse(0);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int[] boardBySnapshot() {
+        this.logic.snapshot(this.board);
+        return this.board;
+    }
+
+    @Benchmark
+    public boolean isOver() {
+        return this.logic.isOver();
+    }
+
+    // A whole game: placing the marks, then hitting until they leave the board
+    @Benchmark
+    public Logic playUntilOver() {
+        Logic game = this.newGame();
+        while (!game.isOver()) {
+            game.hit(new Position(0, 0));
+        }
+        return game;
+    }
+
+    @Benchmark
+    public Logic playUntilOverPrimitive() {
+        Logic game = this.newGame();
+        while (!game.isOver()) {
+            game.hit(0, 0);
+        }
+        return game;
+    }
+}
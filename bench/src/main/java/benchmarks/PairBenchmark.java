@@ -0,0 +1,124 @@
+package benchmarks;
+
+import a01a.sol2.HashedPair;
+import a01a.sol2.IntIntPair;
+import a01a.sol2.IntPairMap;
+import a01a.sol2.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PairBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    int keys;
+
+    private Pair<Integer, Integer>[] pairs;
+    private IntIntPair[] intPairs;
+    private HashedPair<Integer, Integer>[] hashedPairs;
+    private Map<Pair<Integer, Integer>, Integer> map;
+    private Map<IntIntPair, Integer> intPairMap;
+    private Map<HashedPair<Integer, Integer>, Integer> hashedPairMap;
+    private IntPairMap<Integer> openMap;
+    private int next = 0;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        int side = (int) Math.ceil(Math.sqrt(this.keys));
+        this.pairs = new Pair[this.keys];
+        this.intPairs = new IntIntPair[this.keys];
+        this.hashedPairs = new HashedPair[this.keys];
+        this.map = new HashMap<>();
+        this.intPairMap = new HashMap<>();
+        this.hashedPairMap = new HashMap<>();
+        this.openMap = new IntPairMap<>();
+        for (int i = 0; i < this.keys; i++) {
+            this.pairs[i] = new Pair<>(i / side, i % side);
+            this.intPairs[i] = new IntIntPair(i / side, i % side);
+            this.hashedPairs[i] = new HashedPair<>(i / side, i % side);
+            this.map.put(new Pair<>(i / side, i % side), i);
+            this.intPairMap.put(new IntIntPair(i / side, i % side), i);
+            this.hashedPairMap.put(new HashedPair<>(i / side, i % side), i);
+            this.openMap.put(i / side, i % side, i);
+        }
+    }
+
+    private int nextIndex() {
+        this.next = this.next + 1 == this.keys ? 0 : this.next + 1;
+        return this.next;
+    }
+
+    private Pair<Integer, Integer> nextPair() {
+        return this.pairs[this.nextIndex()];
+    }
+
+    @Benchmark
+    public int pairHashCode() {
+        return this.nextPair().hashCode();
+    }
+
+    @Benchmark
+    public int intIntPairHashCode() {
+        return this.intPairs[this.nextIndex()].hashCode();
+    }
+
+    @Benchmark
+    public int hashedPairHashCode() {
+        return this.hashedPairs[this.nextIndex()].hashCode();
+    }
+
+    @Benchmark
+    public boolean pairEquals() {
+        Pair<Integer, Integer> pair = this.nextPair();
+        return pair.equals(new Pair<>(pair.getX(), pair.getY()));
+    }
+
+    @Benchmark
+    public Integer hashMapGet() {
+        return this.map.get(this.nextPair());
+    }
+
+    @Benchmark
+    public Integer intIntPairHashMapGet() {
+        return this.intPairMap.get(this.intPairs[this.nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer hashedPairHashMapGet() {
+        return this.hashedPairMap.get(this.hashedPairs[this.nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer intPairMapGet() {
+        IntIntPair pair = this.intPairs[this.nextIndex()];
+        return this.openMap.get(pair.getX(), pair.getY());
+    }
+
+    // Building the whole map, where boxing the keys costs the most
+    @Benchmark
+    public Map<Pair<Integer, Integer>, Integer> hashMapPutAll() {
+        Map<Pair<Integer, Integer>, Integer> built = new HashMap<>();
+        for (int i = 0; i < this.keys; i++) {
+            built.put(new Pair<>(this.intPairs[i].getX(), this.intPairs[i].getY()), i);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public IntPairMap<Integer> intPairMapPutAll() {
+        IntPairMap<Integer> built = new IntPairMap<>();
+        for (int i = 0; i < this.keys; i++) {
+            built.put(this.intPairs[i].getX(), this.intPairs[i].getY(), i);
+        }
+        return built;
+    }
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import a01a.sol2.LogicImpl;
+import a01a.sol2.LogicSnapshots;
+import a01a.sol2.Position;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+    private static final int SIZE = 1000;
+
+    @Param({"100", "10000", "100000"})
+    int marks;
+
+    private LogicImpl logic;
+    private byte[] snapshot;
+
+    @Setup
+    public void setUp() {
+        Logger.getLogger(LogicImpl.class.getPackageName()).setLevel(Level.OFF);
+        this.logic = new LogicImpl(SIZE);
+        for (int i = 0, placed = 0; placed < this.marks; i += 2) {
+            if ((i / SIZE) % 2 == 0) {
+                this.logic.hit(new Position(i / SIZE, i % SIZE));
+                placed++;
+            }
+        }
+        this.snapshot = LogicSnapshots.save(this.logic);
+    }
+
+    @Benchmark
+    public byte[] save() {
+        return LogicSnapshots.save(this.logic);
+    }
+
+    @Benchmark
+    public LogicImpl load() {
+        return LogicSnapshots.load(this.snapshot);
+    }
+}
@@ -1,6 +1,7 @@
 package GPTtests;
 
 public interface DeviceGPT {
+    OnResultGPT tryOn();
     void on();
     void off();
     void reset();
@@ -0,0 +1,10 @@
+package GPTtests;
+
+/*
+ * The outcome of switching a DeviceGPT on without exceptions.
+ */
+
+public enum OnResultGPT {
+    SWITCHED_ON,
+    FAILED
+}
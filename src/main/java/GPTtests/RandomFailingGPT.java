@@ -1,10 +1,23 @@
 package GPTtests;
 
-import java.util.Random;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public class RandomFailingGPT implements FailingPolicyGPT {
 
-    private final Random random = new Random();
+    // Used when no generator is given: draws from ThreadLocalRandom of the calling thread
+    private static final RandomGenerator THREAD_LOCAL = () -> ThreadLocalRandom.current().nextLong();
+
+    private final RandomGenerator random;
+
+    public RandomFailingGPT() {
+        this(THREAD_LOCAL);
+    }
+
+    public RandomFailingGPT(RandomGenerator random) {
+        this.random = Objects.requireNonNull(random);
+    }
 
     @Override
     public boolean attemptOn() {
@@ -14,13 +14,21 @@ public class StandardDeviceGPT implements DeviceGPT {
     }
 
     @Override
-    public void on() {
-        // Each call to on() must check with the policy.
+    public OnResultGPT tryOn() {
+        // Each call to tryOn() must check with the policy.
         if (!policy.attemptOn()) {
             // Device remains off if the attempt fails.
-            throw new IllegalStateException("Failed to turn on device");
+            return OnResultGPT.FAILED;
         }
         on = true;
+        return OnResultGPT.SWITCHED_ON;
+    }
+
+    @Override
+    public void on() {
+        if (tryOn() == OnResultGPT.FAILED) {
+            throw new IllegalStateException("Failed to turn on device");
+        }
     }
 
     @Override
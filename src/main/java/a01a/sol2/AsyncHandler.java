@@ -0,0 +1,79 @@
+package a01a.sol2;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/*
+ * A Handler publishing the records to a delegate from a background thread.
+ * Records wait in a bounded buffer: when it is full they are dropped (and counted) instead of blocking the caller.
+ */
+
+public class AsyncHandler extends Handler {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private final Handler delegate;
+    private final BlockingQueue<LogRecord> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean closed = false;
+
+    public AsyncHandler(Handler delegate, int capacity) {
+        this.delegate = delegate;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::write, "async-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (this.closed || !isLoggable(record)) {
+            return;
+        }
+        // the caller must be inferred now, the writer thread would find itself on the stack
+        record.getSourceClassName();
+        if (!this.buffer.offer(record)) {
+            this.dropped.incrementAndGet();
+        }
+    }
+
+    private void write() {
+        try {
+            while (!this.closed || !this.buffer.isEmpty()) {
+                this.delegate.publish(this.buffer.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getDropped() {
+        return this.dropped.get();
+    }
+
+    @Override
+    public void flush() {
+        this.delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.writer.interrupt();
+        // the writer may be in the middle of a publish: the rest is published only once it stopped, to keep the order
+        try {
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LogRecord record;
+        while ((record = this.buffer.poll()) != null) {
+            this.delegate.publish(record);
+        }
+        this.delegate.close();
+    }
+}
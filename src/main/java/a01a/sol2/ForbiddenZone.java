@@ -0,0 +1,76 @@
+package a01a.sol2;
+
+import java.util.Arrays;
+
+/*
+ * The cells where a hit makes the marks move: the cell and the 8 neighbours of every mark, as the bits of a grid
+ * padded by one cell on each side, so that marks on the border need no special case. Cell (x,y) is the bit
+ * (x+1)*stride + y+1, with stride = size+2: moving the marks by (+1,-1) moves every bit by stride-1, which is a
+ * shift of the whole array.
+ * Only marks on the board are added, whose neighbourhood always fits in the padding.
+ */
+
+final class ForbiddenZone {
+
+    private final int size;
+    private final int stride;
+    private final long[] words;
+
+    ForbiddenZone(int size) {
+        this.size = size;
+        this.stride = size + 2;
+        this.words = new long[(this.stride * this.stride + 63) >>> 6];
+    }
+
+    private int bit(int x, int y) {
+        return (x + 1) * this.stride + y + 1;
+    }
+
+    // Three cells of a row at a time: (x-1..x+1, y-1), (x-1..x+1, y), (x-1..x+1, y+1) are consecutive bits
+    void add(int x, int y) {
+        if (!Positions.inBounds(x, y, this.size)) {
+            throw new IllegalArgumentException("Not on the board: " + new Position(x, y));
+        }
+        for (int row = x - 1; row <= x + 1; row++) {
+            int from = this.bit(row, y - 1);
+            this.words[from >>> 6] |= 0b111L << from;
+            int overflow = (from & 63) + 3 - 64;
+            if (overflow > 0) {
+                this.words[(from >>> 6) + 1] |= (1L << overflow) - 1;
+            }
+        }
+    }
+
+    boolean contains(int x, int y) {
+        if (x < -1 || y < -1 || x > this.size || y > this.size) {
+            return false;
+        }
+        int bit = this.bit(x, y);
+        return (this.words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    // Follows the marks moving by (+1,-1)
+    void shift() {
+        int distance = this.stride - 1;
+        int wordShift = distance >>> 6;
+        int bitShift = distance & 63;
+        for (int i = this.words.length - 1; i >= 0; i--) {
+            long high = i >= wordShift ? this.words[i - wordShift] << bitShift : 0;
+            long low = bitShift != 0 && i > wordShift ? this.words[i - wordShift - 1] >>> (64 - bitShift) : 0;
+            this.words[i] = high | low;
+        }
+        int cells = this.stride * this.stride;
+        if ((cells & 63) != 0) {
+            this.words[this.words.length - 1] &= (1L << cells) - 1;
+        }
+        // The padding column y == size is where the column y == -1 wraps to, and no neighbour is left there
+        for (int x = -1; x <= this.size; x++) {
+            int bit = this.bit(x, this.size);
+            this.words[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(this.words, 0);
+    }
+}
@@ -12,13 +12,19 @@ public class GUI extends JFrame {
     
     private static final long serialVersionUID = -6218820567019985015L;
     private final Map<JButton, Position> cells = new HashMap<>();
+    private final Map<Position, JButton> buttons = new HashMap<>();
     private Logic logic;
     
     public GUI(int size) {
+        this(size, LogicMode.STANDARD);
+    }
+
+    public GUI(int size, LogicMode mode) {
         Log.setLOGGER(Logger.getLogger(LogicImpl.class.getName()));
+        Log.enableAsync();
         this.setDefaultCloseOperation(EXIT_ON_CLOSE);
         this.setSize(70*size, 70*size);
-        this.logic = new LogicImpl(size);
+        this.logic = mode.create(size);
         
         JPanel panel = new JPanel(new GridLayout(size,size));
         this.getContentPane().add(panel);
@@ -27,13 +33,7 @@ public class GUI extends JFrame {
             Log.getLOGGER().log(Level.INFO, "Button clicked");
             var jb = (JButton)e.getSource();
             this.logic.hit(this.cells.get(jb));
-            for (var entry: this.cells.entrySet()){
-                entry.getKey().setText(
-                    this.logic
-                        .getMark(entry.getValue())
-                        .map(String::valueOf)
-                        .orElse(" "));
-            }
+            this.refresh();
             if (this.logic.isOver()){
                 System.exit(0);
             }
@@ -43,6 +43,7 @@ public class GUI extends JFrame {
             for (int j=0; j<size; j++){
             	final JButton jb = new JButton();
                 this.cells.put(jb, new Position(j,i));
+                this.buttons.put(new Position(j,i), jb);
                 jb.addActionListener(al);
                 panel.add(jb);
             }
@@ -50,6 +51,20 @@ public class GUI extends JFrame {
         this.setVisible(true);
     }
 
+    // Only the buttons of the cells changed by the last hit are updated
+    private void refresh() {
+        for (var position: this.logic.changes()){
+            var jb = this.buttons.get(position);
+            if (jb != null){
+                jb.setText(
+                    this.logic
+                        .getMark(position)
+                        .map(String::valueOf)
+                        .orElse(" "));
+            }
+        }
+    }
+
 
     // Below are the methods created ad-hoc for testing
     // Setter method
@@ -76,14 +91,7 @@ public class GUI extends JFrame {
     public void handleButtonClick(JButton button) {
         Position position = this.cells.get(button);
         this.logic.hit(position);
-
-        for (var entry : this.cells.entrySet()) {
-            entry.getKey().setText(
-                    this.logic
-                            .getMark(entry.getValue())
-                            .map(String::valueOf)
-                            .orElse(" "));
-        }
+        this.refresh();
     }
     
 }
@@ -0,0 +1,152 @@
+package a01a.sol2;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * Replays pre-generated games against a Logic without any GUI, splitting the games across the cores
+ * of a ForkJoinPool. A game is an array of clicks, each click being the cell x*size+y.
+ */
+
+public class GameSimulator {
+
+    // Games replayed by a single task without splitting it further
+    private static final int THRESHOLD = 64;
+
+    private final int size;
+    private final IntFunction<Logic> factory;
+    private final ForkJoinPool pool;
+
+    public GameSimulator(int size, IntFunction<Logic> factory, ForkJoinPool pool) {
+        this.size = size;
+        this.factory = factory;
+        this.pool = pool;
+    }
+
+    public GameSimulator(int size, IntFunction<Logic> factory) {
+        this(size, factory, ForkJoinPool.commonPool());
+    }
+
+    public static int[][] randomGames(int size, int games, int clicks, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][] result = new int[games][clicks];
+        for (int[] game : result) {
+            for (int i = 0; i < clicks; i++) {
+                game[i] = random.nextInt(size * size);
+            }
+        }
+        return result;
+    }
+
+    public SimulationReport run(int[][] games) {
+        long start = System.nanoTime();
+        Outcomes outcomes = this.pool.invoke(new Replay(games, 0, games.length));
+        return new SimulationReport(games.length, outcomes.clicks, outcomes.over, outcomes.marks,
+                System.nanoTime() - start);
+    }
+
+    private Outcomes replay(int[] game) {
+        Outcomes outcomes = new Outcomes();
+        Logic logic = this.factory.apply(this.size);
+        int marks = 0;
+        for (int click : game) {
+            if (logic.isOver()) {
+                break;
+            }
+            outcomes.clicks++;
+            if (logic.hit(click / this.size, click % this.size) != 0) {
+                marks++;
+            }
+        }
+        if (logic.isOver()) {
+            outcomes.over++;
+        }
+        outcomes.marks = new long[marks + 1];
+        outcomes.marks[marks]++;
+        return outcomes;
+    }
+
+    private static class Outcomes {
+        private long clicks = 0;
+        private long over = 0;
+        // Number of games by number of marks placed
+        private long[] marks = new long[0];
+
+        private Outcomes merge(Outcomes other) {
+            this.clicks += other.clicks;
+            this.over += other.over;
+            if (other.marks.length > this.marks.length) {
+                this.marks = Arrays.copyOf(this.marks, other.marks.length);
+            }
+            for (int i = 0; i < other.marks.length; i++) {
+                this.marks[i] += other.marks[i];
+            }
+            return this;
+        }
+    }
+
+    private class Replay extends RecursiveTask<Outcomes> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[][] games;
+        private final int from;
+        private final int to;
+
+        private Replay(int[][] games, int from, int to) {
+            this.games = games;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Outcomes compute() {
+            if (this.to - this.from <= THRESHOLD) {
+                Outcomes outcomes = new Outcomes();
+                for (int i = this.from; i < this.to; i++) {
+                    outcomes.merge(replay(this.games[i]));
+                }
+                return outcomes;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            Replay left = new Replay(this.games, this.from, middle);
+            left.fork();
+            Outcomes right = new Replay(this.games, middle, this.to).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    public record SimulationReport(long games, long clicks, long over, long[] marks, long nanos) {
+
+        public double gamesPerSecond() {
+            return this.games * 1e9 / this.nanos;
+        }
+
+        public double clicksPerSecond() {
+            return this.clicks * 1e9 / this.nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d games, %d clicks in %.3f s: %.0f games/s, %.0f clicks/s, %d over, marks placed %s",
+                    this.games, this.clicks, this.nanos / 1e9, this.gamesPerSecond(), this.clicksPerSecond(),
+                    this.over, Arrays.toString(this.marks));
+        }
+    }
+
+    // Usage: GameSimulator [size] [games] [clicks] [STANDARD|OFFSET]
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int clicks = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        LogicMode mode = args.length > 3 ? LogicMode.valueOf(args[3]) : LogicMode.STANDARD;
+        Logger.getLogger(GameSimulator.class.getPackageName()).setLevel(Level.OFF);
+
+        int[][] replays = randomGames(size, games, clicks, 0);
+        System.out.println(new GameSimulator(size, mode::create).run(replays));
+    }
+}
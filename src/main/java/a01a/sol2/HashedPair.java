@@ -0,0 +1,55 @@
+package a01a.sol2;
+
+import java.util.Objects;
+
+/*
+ * A Pair<X,Y> computing its hashCode once, in the constructor: for keys of large hash maps, that get hashed and
+ * compared often. X and Y must then be immutable, or at least not change their hashCode.
+ * The hash is the same as Pair's, but a HashedPair is never equal to a Pair (as for Pair and its subclasses).
+ */
+
+public final class HashedPair<X,Y> {
+
+	private final X x;
+	private final Y y;
+	private final int hash;
+
+	public HashedPair(X x, Y y) {
+		this.x = x;
+		this.y = y;
+		this.hash = 31 * (31 + Objects.hashCode(x)) + Objects.hashCode(y);
+	}
+
+	public X getX() {
+		return x;
+	}
+
+	public Y getY() {
+		return y;
+	}
+
+	public Pair<X, Y> toPair() {
+		return new Pair<>(x, y);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof HashedPair))
+			return false;
+		HashedPair<?, ?> other = (HashedPair<?, ?>) obj;
+		// Different hashes are the cheap way out of most comparisons between different pairs
+		return hash == other.hash && Objects.equals(x, other.x) && Objects.equals(y, other.y);
+	}
+
+	@Override
+	public String toString() {
+		return "HashedPair [x=" + x + ", y=" + y + "]";
+	}
+}
@@ -0,0 +1,48 @@
+package a01a.sol2;
+
+/*
+ * A Pair of two ints, without boxing: its hashCode and equals agree with those of a Pair<Integer,Integer>.
+ */
+
+public final class IntIntPair {
+
+	private final int x;
+	private final int y;
+
+	public IntIntPair(int x, int y) {
+		this.x = x;
+		this.y = y;
+	}
+
+	public int getX() {
+		return x;
+	}
+
+	public int getY() {
+		return y;
+	}
+
+	public Pair<Integer, Integer> toPair() {
+		return new Pair<>(x, y);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 + x) + y;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof IntIntPair))
+			return false;
+		IntIntPair other = (IntIntPair) obj;
+		return x == other.x && y == other.y;
+	}
+
+	@Override
+	public String toString() {
+		return "IntIntPair [x=" + x + ", y=" + y + "]";
+	}
+}
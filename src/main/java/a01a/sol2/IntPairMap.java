@@ -0,0 +1,145 @@
+package a01a.sol2;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/*
+ * A map keyed by pairs of ints, as a Map<IntIntPair,V> or a Map<Pair<Integer,Integer>,V> would be, without any
+ * key object: keys are packed in longs by Positions, in an open-addressing table with linear probing.
+ * Null values are not allowed, a null slot is a free one.
+ */
+
+public class IntPairMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+    // 2^64 divided by the golden ratio, spreading packed keys over the table (Fibonacci hashing)
+    private static final long SPREAD = 0x9E3779B97F4A7C15L;
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(int x, int y, V value);
+    }
+
+    private long[] keys;
+    private Object[] values;
+    private int size = 0;
+    private int mask;
+    private int shift;
+
+    public IntPairMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    // The table is kept at most half full, so it is sized for twice the expected number of entries
+    public IntPairMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+        this.allocate(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize * 2 - 1)) << 1));
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.shift = Long.numberOfLeadingZeros(capacity - 1);
+    }
+
+    private int slot(long key) {
+        return (int) ((key * SPREAD) >>> this.shift);
+    }
+
+    // The slot holding the key, or the free slot ending its probe sequence
+    private int find(long key) {
+        int i = this.slot(key);
+        while (this.values[i] != null && this.keys[i] != key) {
+            i = (i + 1) & this.mask;
+        }
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int x, int y) {
+        return (V) this.values[this.find(Positions.pack(x, y))];
+    }
+
+    public V getOrDefault(int x, int y, V defaultValue) {
+        V value = this.get(x, y);
+        return value == null ? defaultValue : value;
+    }
+
+    public boolean containsKey(int x, int y) {
+        return this.get(x, y) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int x, int y, V value) {
+        Objects.requireNonNull(value);
+        long key = Positions.pack(x, y);
+        int i = this.find(key);
+        V previous = (V) this.values[i];
+        this.keys[i] = key;
+        this.values[i] = value;
+        if (previous == null && ++this.size * 2 > this.keys.length) {
+            this.grow();
+        }
+        return previous;
+    }
+
+    private void grow() {
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        this.allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int j = this.find(oldKeys[i]);
+                this.keys[j] = oldKeys[i];
+                this.values[j] = oldValues[i];
+            }
+        }
+    }
+
+    // Backward shift deletion: the entries after the removed one are moved back, so no tombstones are needed
+    @SuppressWarnings("unchecked")
+    public V remove(int x, int y) {
+        int gap = this.find(Positions.pack(x, y));
+        V removed = (V) this.values[gap];
+        if (removed == null) {
+            return null;
+        }
+        for (int j = (gap + 1) & this.mask; this.values[j] != null; j = (j + 1) & this.mask) {
+            int home = this.slot(this.keys[j]);
+            // The entry can fill the gap if the gap lies between its home slot and where it is now
+            if (((j - home) & this.mask) >= ((j - gap) & this.mask)) {
+                this.keys[gap] = this.keys[j];
+                this.values[gap] = this.values[j];
+                gap = j;
+            }
+        }
+        this.values[gap] = null;
+        this.size--;
+        return removed;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.values[i] != null) {
+                action.accept(Positions.x(this.keys[i]), Positions.y(this.keys[i]), (V) this.values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package a01a.sol2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * Load on a LogicServer of the local machine: every connection plays its own session, keeping up to depth requests
+ * pipelined (mostly getMark, a hit every 16 requests), and closes it at the end of its requests.
+ * The latency of each request is measured from when it is written to when its response is read.
+ */
+
+public class LoadGenerator {
+
+    private final int port;
+    private final int connections;
+    private final int depth;
+    private final int requests;
+    private final int size;
+
+    public LoadGenerator(int port, int connections, int depth, int requests, int size) {
+        if (connections <= 0 || depth <= 0 || requests <= 0 || size <= 0) {
+            throw new IllegalArgumentException("Connections, depth, requests and size must be positive");
+        }
+        this.port = port;
+        this.connections = connections;
+        this.depth = depth;
+        this.requests = requests;
+        this.size = size;
+    }
+
+    public LoadReport run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(this.connections);
+        try {
+            long start = System.nanoTime();
+            LongAdder errors = new LongAdder();
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int i = 0; i < this.connections; i++) {
+                int connection = i;
+                results.add(executor.submit(() -> this.play(connection, errors)));
+            }
+            long[] latencies = new long[this.connections * this.requests];
+            for (int i = 0; i < this.connections; i++) {
+                System.arraycopy(results.get(i).get(), 0, latencies, i * this.requests, this.requests);
+            }
+            long nanos = System.nanoTime() - start;
+            Arrays.sort(latencies);
+            return new LoadReport(latencies.length, errors.sum(), nanos,
+                    percentile(latencies, 50), percentile(latencies, 99), latencies[latencies.length - 1]);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A connection failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        return sorted[(int) ((sorted.length - 1) * (long) percent / 100)];
+    }
+
+    private long[] play(int connection, LongAdder errors) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.port);
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            socket.setTcpNoDelay(true);
+            out.write(request("POST", "/sessions?size=" + this.size));
+            out.flush();
+            long id = Long.parseLong(readResponse(in, true));
+
+            SplittableRandom random = new SplittableRandom(connection);
+            byte[][] requests = new byte[this.requests][];
+            for (int i = 0; i < requests.length; i++) {
+                String cell = "?x=" + random.nextInt(this.size) + "&y=" + random.nextInt(this.size);
+                requests[i] = i % 16 == 0
+                        ? request("POST", "/sessions/" + id + "/hit" + cell)
+                        : request("GET", "/sessions/" + id + "/mark" + cell);
+            }
+            long[] sent = new long[requests.length];
+            long[] latencies = new long[requests.length];
+            int written = 0;
+            for (; written < Math.min(this.depth, requests.length); written++) {
+                sent[written] = System.nanoTime();
+                out.write(requests[written]);
+            }
+            out.flush();
+            for (int i = 0; i < requests.length; i++) {
+                if (readResponse(in, false) == null) {
+                    errors.increment();
+                }
+                latencies[i] = System.nanoTime() - sent[i];
+                if (written < requests.length) {
+                    sent[written] = System.nanoTime();
+                    out.write(requests[written++]);
+                    out.flush();
+                }
+            }
+            // The game of the connection ends here, its session is not left behind in the registry
+            out.write(request("DELETE", "/sessions/" + id));
+            out.flush();
+            readResponse(in, true);
+            return latencies;
+        }
+    }
+
+    private static byte[] request(String method, String target) {
+        return (method + " " + target + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    // The body of the response, or null if it is not a success (an exception instead if required)
+    private static String readResponse(InputStream in, boolean required) throws IOException {
+        String status = LogicServer.readLine(in);
+        if (status == null) {
+            throw new IOException("Connection closed by the server");
+        }
+        int length = LogicServer.readHeaders(in, new boolean[1]);
+        String body = new String(LogicServer.readBody(in, length), StandardCharsets.UTF_8);
+        if (status.startsWith("HTTP/1.1 200 ")) {
+            return body;
+        }
+        if (required) {
+            throw new IOException("Unexpected response: " + status + " " + body);
+        }
+        return null;
+    }
+
+    // Latencies in nanoseconds
+    public record LoadReport(long requests, long errors, long nanos, long p50, long p99, long max) {
+
+        public double requestsPerSecond() {
+            return this.requests * 1e9 / this.nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests (%d errors) in %.3f s: %.0f requests/s, p50 %.1f us, p99 %.1f us, max %.1f us",
+                    this.requests, this.errors, this.nanos / 1e9, this.requestsPerSecond(),
+                    this.p50 / 1e3, this.p99 / 1e3, this.max / 1e3);
+        }
+    }
+
+    // Usage: LoadGenerator [connections] [depth] [requests per connection] [size], against a server started here
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        int size = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        Logger.getLogger(LoadGenerator.class.getPackageName()).setLevel(Level.OFF);
+
+        try (SessionRegistry registry = new SessionRegistry();
+             LogicServer server = LogicServer.start(registry, 0)) {
+            System.out.println(new LoadGenerator(server.port(), connections, depth, requests, size).run());
+        }
+    }
+}
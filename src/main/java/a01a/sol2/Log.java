@@ -1,9 +1,15 @@
 package a01a.sol2;
 
+import java.util.function.Supplier;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class Log {
-    private static Logger LOGGER;
+    // The logger of the package unless replaced: games only read it, so any number of them can share it
+    private static volatile Logger LOGGER = Logger.getLogger(Log.class.getPackageName());
+    private static AsyncHandler ASYNC_HANDLER;
+    private static final StackWalker WALKER = StackWalker.getInstance();
 
     public static void setLOGGER(Logger LOGGERNEW) {
         LOGGER = LOGGERNEW;
@@ -12,4 +18,37 @@ public class Log {
     public static Logger getLOGGER() {
         return LOGGER;
     }
+
+    // Guard for the callers that would otherwise build the message before knowing if it is needed
+    public static boolean isLoggable(Level level) {
+        return LOGGER != null && LOGGER.isLoggable(level);
+    }
+
+    // The message is only built if the level is enabled, and so is the caller looked up
+    public static void log(Level level, Supplier<String> message) {
+        if (isLoggable(level)) {
+            StackWalker.StackFrame caller = WALKER.walk(frames -> frames
+                    .dropWhile(frame -> frame.getClassName().equals(Log.class.getName()))
+                    .findFirst()).orElseThrow();
+            LOGGER.logp(level, caller.getClassName(), caller.getMethodName(), message);
+        }
+    }
+
+    public static void info(Supplier<String> message) {
+        log(Level.INFO, message);
+    }
+
+    /*
+     * Makes the loggers of this package write to the console through an AsyncHandler, so that logging
+     * does not block the caller: records are queued in a bounded buffer and written by a background thread.
+     */
+    public static synchronized AsyncHandler enableAsync() {
+        if (ASYNC_HANDLER == null) {
+            Logger packageLogger = Logger.getLogger(Log.class.getPackageName());
+            ASYNC_HANDLER = new AsyncHandler(new ConsoleHandler(), AsyncHandler.DEFAULT_CAPACITY);
+            packageLogger.setUseParentHandlers(false);
+            packageLogger.addHandler(ASYNC_HANDLER);
+        }
+        return ASYNC_HANDLER;
+    }
 }
@@ -1,6 +1,7 @@
 package a01a.sol2;
 
 import java.util.Optional;
+import java.util.Set;
 
 public interface Logic {
 
@@ -9,4 +10,32 @@ public interface Logic {
     Optional<Integer> getMark(Position position);
 
     boolean isOver();
+
+    // The cells whose mark appeared, moved or disappeared with the last hit
+    Set<Position> changes();
+
+    // Variants of hit and getMark without Position and Optional: the ordinal of the mark, 0 meaning none
+    default int hit(int x, int y) {
+        return this.hit(new Position(x, y)).orElse(0);
+    }
+
+    default int getMark(int x, int y) {
+        return this.getMark(new Position(x, y)).orElse(0);
+    }
+
+    /*
+     * Fills dest with the marks of the whole board, 0 meaning none: the mark of (x,y) goes at index x*size+y,
+     * and dest must hold exactly size*size marks. Here through getMark, implementations do it in one pass.
+     */
+    default void snapshot(int[] dest) {
+        int size = (int) Math.sqrt(dest.length);
+        if (size * size != dest.length) {
+            throw new IllegalArgumentException("Not a square board: " + dest.length + " cells");
+        }
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                dest[x * size + y] = this.getMark(x, y);
+            }
+        }
+    }
 }
@@ -1,67 +1,260 @@
 package a01a.sol2;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Level;
-import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 public class LogicImpl implements Logic {
 
     private final int size;
-    private List<Position> marks = new LinkedList<>();
+    // Positions of the marks packed by Positions, in the order they were placed
+    private long[] marks = new long[16];
+    private int markCount = 0;
+    // Grid index of the marks: ordinal (1-based) of the mark on each cell, keyed by x*size+y
+    private final int[] grid;
+    private final BitSet occupied;
+    // Where a hit makes the marks move, while they are all on the board
+    private final ForbiddenZone zone;
+    // Marks lying outside the board cannot be indexed, they are looked up by scanning the list
+    private int offBoard = 0;
+    // Bounding box of the marks (the game is over as soon as it touches x == size or y == -1),
+    // only usable if no mark was placed outside the board
+    private int maxX = Integer.MIN_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private boolean placedOffBoard = false;
     private boolean moving = false;
+    private int shifts = 0;
+    // Packed cells changed by the last hit, turned into Positions only when changes() is first asked after it
+    private long[] changes = new long[16];
+    private int changeCount = 0;
+    private Set<Position> changed = Set.of();
 
     public LogicImpl(int size) {
         this.size = size;
-
-        Log.setLOGGER(Logger.getLogger(LogicImpl.class.getName()));
+        this.grid = new int[size * size];
+        this.occupied = new BitSet(size * size);
+        this.zone = new ForbiddenZone(size);
     }
 
     @Override
     public Optional<Integer> hit(Position position) {
+        int mark = this.hit(position.x(), position.y());
+        return mark == 0 ? Optional.empty() : Optional.of(mark);
+    }
+
+    @Override
+    public int hit(int x, int y) {
+        this.changeCount = 0;
+        this.changed = null;
         if (this.isOver()){
-            return Optional.empty();
+            return 0;
         }
-        if (this.moving || startMoving(position)){
+        if (this.moving || startMoving(x, y)){
             this.moving = true;
             this.moveMarks();
-            return Optional.empty();
+            return 0;
+        }
+        Log.info(() -> "Placing mark at " + new Position(x, y));
+        long position = Positions.pack(x, y);
+        if (this.markCount == this.marks.length) {
+            this.marks = Arrays.copyOf(this.marks, this.markCount * 2);
+        }
+        this.marks[this.markCount++] = position;
+        this.index(position, this.markCount);
+        if (inside(x, y)) {
+            this.zone.add(x, y);
+        }
+        this.maxX = Math.max(this.maxX, x);
+        this.minY = Math.min(this.minY, y);
+        this.placedOffBoard = this.placedOffBoard || !inside(x, y);
+        this.changed(position);
+        return this.markCount;
+    }
+
+    private boolean inside(int x, int y) {
+        return Positions.inBounds(x, y, this.size);
+    }
+
+    private void index(long position, int ordinal) {
+        if (Positions.inBounds(position, this.size)) {
+            int cell = Positions.x(position) * this.size + Positions.y(position);
+            this.grid[cell] = ordinal;
+            this.occupied.set(cell);
+        } else {
+            this.offBoard++;
+        }
+    }
+
+    private void changed(long position) {
+        if (this.changeCount == this.changes.length) {
+            this.changes = Arrays.copyOf(this.changes, this.changeCount * 2);
         }
-        Log.getLOGGER().log(Level.INFO, "Placing mark at " + position);
-        this.marks.add(position);
-        return Optional.of(this.marks.size());
+        this.changes[this.changeCount++] = position;
     }
 
-    private boolean neighbours(Position p1, Position p2){
-        Log.getLOGGER().log(Level.INFO, "Calculating neighbors of " + p1 + " to see if " + p2 + " is in the range");
-        return Math.abs(p1.x()-p2.x()) <= 1 && Math.abs(p1.y()-p2.y()) <= 1;
+    private boolean neighbours(long p1, long p2){
+        Log.info(() -> "Calculating neighbors of " + Positions.toPosition(p1) + " to see if "
+                + Positions.toPosition(p2) + " is in the range");
+        return Positions.neighbours(p1, p2);
     }
 
-    private boolean startMoving(Position position) {
-        return this.marks.stream().anyMatch(p -> neighbours(p, position));
+    private boolean startMoving(int x, int y) {
+        if (this.offBoard > 0) {
+            long position = Positions.pack(x, y);
+            for (int i = 0; i < this.markCount; i++) {
+                if (neighbours(this.marks[i], position)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Log.info(() -> "Checking the neighborhood of " + new Position(x, y));
+        return this.zone.contains(x, y);
     }
 
     private void moveMarks() {
         Log.getLOGGER().log(Level.INFO, "Move all marks");
-        this.marks = this.marks
-                .stream()
-                .map(p -> new Position(p.x()+1, p.y()-1))
-                .collect(Collectors.toCollection(LinkedList::new));
+        for (int i = 0; i < this.markCount; i++) {
+            long p = this.marks[i];
+            if (Positions.inBounds(p, this.size)) {
+                this.occupied.clear(Positions.x(p) * this.size + Positions.y(p));
+            }
+        }
+        this.offBoard = 0;
+        for (int i = 0; i < this.markCount; i++) {
+            long p = this.marks[i];
+            long moved = Positions.shift(p, 1, -1);
+            this.marks[i] = moved;
+            this.index(moved, i + 1);
+            this.changed(p);
+            this.changed(moved);
+        }
+        this.zone.shift();
+        this.maxX++;
+        this.minY--;
+        this.shifts++;
     }
 
     @Override
     public Optional<Integer> getMark(Position position) {
-        Log.getLOGGER().log(Level.INFO, "Getting mark at position " + position + " = " + Optional.of(
-                this.marks.indexOf(position)).filter(i -> i>=0).map(i -> i+1)
-        );
-        return Optional.of(this.marks.indexOf(position)).filter(i -> i>=0).map(i -> i+1);
+        int found = this.lookup(position.x(), position.y());
+        Optional<Integer> mark = found == 0 ? Optional.empty() : Optional.of(found);
+        Log.info(() -> "Getting mark at position " + position + " = " + mark);
+        return mark;
+    }
+
+    @Override
+    public int getMark(int x, int y) {
+        int mark = this.lookup(x, y);
+        Log.info(() -> "Getting mark at position " + new Position(x, y) + " = "
+                + (mark == 0 ? Optional.empty() : Optional.of(mark)));
+        return mark;
+    }
+
+    private int lookup(int x, int y) {
+        if (inside(x, y)) {
+            int cell = x * this.size + y;
+            return this.occupied.get(cell) ? this.grid[cell] : 0;
+        }
+        long position = Positions.pack(x, y);
+        for (int i = 0; i < this.markCount; i++) {
+            if (this.marks[i] == position) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void snapshot(int[] dest) {
+        if (dest.length != this.size * this.size) {
+            throw new IllegalArgumentException("Expected " + this.size * this.size + " cells, not " + dest.length);
+        }
+        Arrays.fill(dest, 0);
+        for (int i = 0; i < this.markCount; i++) {
+            long position = this.marks[i];
+            if (Positions.inBounds(position, this.size)) {
+                dest[Positions.x(position) * this.size + Positions.y(position)] = i + 1;
+            }
+        }
     }
 
     @Override
     public boolean isOver() {
-        if(this.marks.stream().anyMatch(p -> p.x() == this.size || p.y() == -1)) Log.getLOGGER().log(Level.INFO, "Application is over");
-        return this.marks.stream().anyMatch(p -> p.x() == this.size || p.y() == -1);
+        boolean over = this.placedOffBoard ? this.anyMarkOut() : this.maxX == this.size || this.minY == -1;
+        if (over) Log.getLOGGER().log(Level.INFO, "Application is over");
+        return over;
+    }
+
+    private boolean anyMarkOut() {
+        for (int i = 0; i < this.markCount; i++) {
+            if (Positions.x(this.marks[i]) == this.size || Positions.y(this.marks[i]) == -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Set<Position> changes() {
+        if (this.changed == null) {
+            Set<Position> changed = new HashSet<>();
+            for (int i = 0; i < this.changeCount; i++) {
+                changed.add(Positions.toPosition(this.changes[i]));
+            }
+            this.changed = Collections.unmodifiableSet(changed);
+        }
+        return this.changed;
+    }
+
+    // Below is the state read and rebuilt by LogicSnapshots: where the marks were placed, and how many shifts since
+    int size() {
+        return this.size;
+    }
+
+    int markCount() {
+        return this.markCount;
+    }
+
+    int placedX(int mark) {
+        return Positions.x(this.marks[mark]) - this.shifts;
+    }
+
+    int placedY(int mark) {
+        return Positions.y(this.marks[mark]) + this.shifts;
+    }
+
+    int shifts() {
+        return this.shifts;
+    }
+
+    boolean moving() {
+        return this.moving;
+    }
+
+    static LogicImpl restore(int size, int[] placedX, int[] placedY, int count, int shifts, boolean moving) {
+        LogicImpl logic = new LogicImpl(size);
+        logic.marks = new long[Math.max(count, 16)];
+        for (int i = 0; i < count; i++) {
+            long position = Positions.pack(placedX[i] + shifts, placedY[i] - shifts);
+            logic.marks[i] = position;
+            logic.index(position, i + 1);
+            if (Positions.inBounds(position, size)) {
+                logic.zone.add(Positions.x(position), Positions.y(position));
+            }
+            logic.maxX = Math.max(logic.maxX, placedX[i]);
+            logic.minY = Math.min(logic.minY, placedY[i]);
+            logic.placedOffBoard = logic.placedOffBoard || !logic.inside(placedX[i], placedY[i]);
+        }
+        logic.markCount = count;
+        logic.maxX += shifts;
+        logic.minY -= shifts;
+        logic.shifts = shifts;
+        logic.moving = moving;
+        return logic;
     }
 }
@@ -0,0 +1,22 @@
+package a01a.sol2;
+
+import java.util.function.IntFunction;
+
+/*
+ * The available Logic implementations, selectable e.g. when building the GUI.
+ */
+
+public enum LogicMode {
+    STANDARD(LogicImpl::new),
+    OFFSET(OffsetLogicImpl::new);
+
+    private final IntFunction<Logic> factory;
+
+    LogicMode(IntFunction<Logic> factory) {
+        this.factory = factory;
+    }
+
+    public Logic create(int size) {
+        return this.factory.apply(size);
+    }
+}
@@ -0,0 +1,338 @@
+package a01a.sol2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/*
+ * A minimal HTTP/1.1 front end for the games of a SessionRegistry, on the loopback interface only.
+ * Each connection is served by a thread of its own (a virtual one if the JVM has them), reading requests one after
+ * the other: pipelined requests are answered in order, and their responses flushed together.
+ *
+ *   POST   /sessions?size=10[&mode=OFFSET]     the id of a new session
+ *   DELETE /sessions/{id}                      closes the session
+ *   POST   /sessions/{id}/hit?x=1&y=2          the mark placed, 0 if none
+ *   POST   /sessions/{id}/hits                 a body of "x y" lines, hit in one go: the marks placed, one per line
+ *   GET    /sessions/{id}/mark?x=1&y=2         the mark on the cell, 0 if none
+ *   GET    /sessions/{id}/over                 true or false
+ *   GET    /sessions/{id}/board                one line per row (y), the marks of its cells (x) separated by spaces
+ */
+
+public class LogicServer implements AutoCloseable {
+
+    private static final int MAX_LINE = 8192;
+    private static final int MAX_BODY = 1 << 20;
+
+    private final SessionRegistry registry;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    // The sockets of the connections being served, closed with the server
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+    private LogicServer(SessionRegistry registry, int port) throws IOException {
+        this.registry = registry;
+        this.serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        this.connections = VirtualThreads.perTaskExecutor(() -> Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "logic-server-connection");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    // Port 0 picks a free one, see port()
+    public static LogicServer start(SessionRegistry registry, int port) throws IOException {
+        LogicServer server = new LogicServer(registry, port);
+        Thread acceptor = new Thread(server::accept, "logic-server-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return server;
+    }
+
+    public int port() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                Socket socket = this.serverSocket.accept();
+                this.sockets.add(socket);
+                if (this.serverSocket.isClosed()) {
+                    // close() may have run before the socket was tracked
+                    this.sockets.remove(socket);
+                    socket.close();
+                    break;
+                }
+                try {
+                    this.connections.execute(() -> this.serve(socket));
+                } catch (RejectedExecutionException e) {
+                    this.sockets.remove(socket);
+                    socket.close();
+                }
+            } catch (IOException e) {
+                // The server socket was closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            socket.setTcpNoDelay(true);
+            while (true) {
+                Request request;
+                try {
+                    request = Request.read(in);
+                } catch (IllegalArgumentException e) {
+                    new Response(400, e.getMessage()).write(out);
+                    break;
+                }
+                if (request == null) {
+                    break;
+                }
+                this.handle(request).write(out);
+                if (request.close()) {
+                    break;
+                }
+                // Requests already received are answered before flushing, so a pipeline gets its responses together
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            Log.info(() -> "Connection dropped: " + e);
+        } finally {
+            this.sockets.remove(socket);
+        }
+    }
+
+    Response handle(Request request) {
+        try {
+            String[] path = request.path().split("/");
+            if (path.length < 2 || !path[0].isEmpty() || !path[1].equals("sessions")) {
+                return Response.NOT_FOUND;
+            }
+            if (path.length == 2) {
+                if (!request.method().equals("POST")) {
+                    return Response.NOT_FOUND;
+                }
+                String mode = request.query().getOrDefault("mode", LogicMode.STANDARD.name());
+                return Response.ok(this.registry.open(request.intParameter("size"), LogicMode.valueOf(mode)));
+            }
+            long id = Long.parseLong(path[2]);
+            if (path.length == 3) {
+                return request.method().equals("DELETE") && this.registry.close(id) ? Response.ok("") : Response.NOT_FOUND;
+            }
+            if (path.length > 4) {
+                return Response.NOT_FOUND;
+            }
+            switch (request.method() + " " + path[3]) {
+                case "POST hit": {
+                    // Applied on the connection thread: handing it to the registry executor would only add a hop
+                    int x = request.intParameter("x");
+                    int y = request.intParameter("y");
+                    return Response.ok(this.registry.withLogic(id, logic -> logic.hit(x, y)));
+                }
+                case "POST hits":
+                    return Response.ok(this.hits(id, request.body()));
+                case "GET mark":
+                    return Response.ok(this.registry.getMark(id, request.intParameter("x"), request.intParameter("y")));
+                case "GET over":
+                    return Response.ok(this.registry.isOver(id));
+                case "GET board":
+                    return Response.ok(this.board(id));
+                default:
+                    return Response.NOT_FOUND;
+            }
+        } catch (NoSuchElementException e) {
+            return Response.NOT_FOUND;
+        } catch (IllegalArgumentException e) {
+            return new Response(400, String.valueOf(e.getMessage()));
+        } catch (RuntimeException e) {
+            Log.info(() -> "Request " + request.method() + " " + request.path() + " failed: " + e);
+            return Response.INTERNAL_ERROR;
+        }
+    }
+
+    // All the hits are applied under the session lock, so no other request interleaves with them
+    private String hits(long id, String body) {
+        String[] coordinates = body.trim().split("\\s+");
+        if (coordinates.length % 2 != 0) {
+            throw new IllegalArgumentException("Hits must be pairs of coordinates");
+        }
+        int[] cells = new int[coordinates.length];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = Integer.parseInt(coordinates[i]);
+        }
+        return this.registry.withLogic(id, logic -> {
+            StringBuilder marks = new StringBuilder();
+            for (int i = 0; i < cells.length; i += 2) {
+                marks.append(logic.hit(cells[i], cells[i + 1])).append('\n');
+            }
+            return marks.toString();
+        });
+    }
+
+    private String board(long id) {
+        int size = this.registry.size(id);
+        int[] marks = new int[size * size];
+        // Only the copy is taken under the session lock, the text is built afterwards
+        this.registry.withLogic(id, logic -> {
+            logic.snapshot(marks);
+            return null;
+        });
+        StringBuilder board = new StringBuilder();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                board.append(x == 0 ? "" : " ").append(marks[x * size + y]);
+            }
+            board.append('\n');
+        }
+        return board.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        this.connections.shutdownNow();
+        for (Socket socket : this.sockets) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                Log.info(() -> "Closing a connection failed: " + e);
+            }
+        }
+        this.sockets.clear();
+    }
+
+    // A line ending with CRLF (or LF) without it, or null at the end of the stream
+    static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b == -1) {
+                return line.size() == 0 ? null : line.toString(StandardCharsets.ISO_8859_1);
+            }
+            if (line.size() == MAX_LINE) {
+                throw new IllegalArgumentException("Line too long");
+            }
+            line.write(b);
+        }
+        String read = line.toString(StandardCharsets.ISO_8859_1);
+        return read.endsWith("\r") ? read.substring(0, read.length() - 1) : read;
+    }
+
+    // The content length in the headers, with the connection closed afterwards if asked
+    static int readHeaders(InputStream in, boolean[] close) throws IOException {
+        int length = 0;
+        String header;
+        while ((header = readLine(in)) != null && !header.isEmpty()) {
+            int colon = header.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Malformed header: " + header);
+            }
+            String name = header.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = header.substring(colon + 1).trim();
+            if (name.equals("content-length")) {
+                length = Integer.parseInt(value);
+                if (length < 0 || length > MAX_BODY) {
+                    throw new IllegalArgumentException("Bad content length: " + value);
+                }
+            } else if (name.equals("connection")) {
+                close[0] = value.equalsIgnoreCase("close");
+            }
+        }
+        return length;
+    }
+
+    static byte[] readBody(InputStream in, int length) throws IOException {
+        byte[] body = in.readNBytes(length);
+        if (body.length < length) {
+            throw new IOException("Stream ended in the middle of a body");
+        }
+        return body;
+    }
+
+    record Request(String method, String path, Map<String, String> query, String body, boolean close) {
+
+        static Request read(InputStream in) throws IOException {
+            String line = readLine(in);
+            // Empty lines between requests are tolerated
+            while (line != null && line.isEmpty()) {
+                line = readLine(in);
+            }
+            if (line == null) {
+                return null;
+            }
+            String[] parts = line.split(" ");
+            if (parts.length != 3 || !parts[2].startsWith("HTTP/1.")) {
+                throw new IllegalArgumentException("Malformed request line: " + line);
+            }
+            boolean[] close = {parts[2].equals("HTTP/1.0")};
+            int length = readHeaders(in, close);
+            String body = new String(readBody(in, length), StandardCharsets.UTF_8);
+            int question = parts[1].indexOf('?');
+            String path = question < 0 ? parts[1] : parts[1].substring(0, question);
+            Map<String, String> query = new HashMap<>();
+            if (question >= 0) {
+                for (String parameter : parts[1].substring(question + 1).split("&")) {
+                    int equals = parameter.indexOf('=');
+                    if (equals > 0) {
+                        query.put(parameter.substring(0, equals), parameter.substring(equals + 1));
+                    }
+                }
+            }
+            return new Request(parts[0], path, query, body, close[0]);
+        }
+
+        int intParameter(String name) {
+            String value = this.query.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing parameter " + name);
+            }
+            return Integer.parseInt(value);
+        }
+    }
+
+    record Response(int status, String body) {
+
+        static final Response NOT_FOUND = new Response(404, "Not found");
+        static final Response INTERNAL_ERROR = new Response(500, "Internal error");
+
+        static Response ok(Object body) {
+            return new Response(200, String.valueOf(body));
+        }
+
+        void write(OutputStream out) throws IOException {
+            byte[] content = this.body.getBytes(StandardCharsets.UTF_8);
+            String reason = switch (this.status) {
+                case 200 -> "OK";
+                case 400 -> "Bad Request";
+                case 404 -> "Not Found";
+                default -> "Internal Server Error";
+            };
+            out.write(("HTTP/1.1 " + this.status + " " + reason + "\r\n"
+                    + "Content-Type: text/plain; charset=utf-8\r\n"
+                    + "Content-Length: " + content.length + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.write(content);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package a01a.sol2;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Compact binary snapshots of a LogicImpl game.
+ * A full snapshot holds the board size, the number of shifts, the moving flag, and the positions where
+ * the marks were placed, each as a zigzag varint delta from the previous one. Marks are only ever placed
+ * before the first shift, so an incremental snapshot just adds the marks placed since the previous
+ * snapshot and the new number of shifts; compaction folds the increments into a new full snapshot.
+ */
+
+public final class LogicSnapshots {
+
+    private static final byte FULL = 'F';
+    private static final byte INCREMENT = 'I';
+
+    private LogicSnapshots() {}
+
+    public static byte[] save(LogicImpl logic) {
+        Writer writer = new Writer(logic.markCount());
+        writer.put(FULL);
+        writer.putVarint(logic.size());
+        writeState(writer, logic, 0);
+        return writer.bytes();
+    }
+
+    // The changes of the game since the previous snapshot (full or incremental) of it was taken
+    public static byte[] saveSince(LogicImpl logic, byte[] previous) {
+        int previousMarks = new Reader(previous).header().marks;
+        if (previousMarks > logic.markCount()) {
+            throw new IllegalArgumentException("The previous snapshot is not of this game");
+        }
+        Writer writer = new Writer(logic.markCount() - previousMarks);
+        writer.put(INCREMENT);
+        writer.putVarint(previousMarks);
+        writeState(writer, logic, previousMarks);
+        return writer.bytes();
+    }
+
+    private static void writeState(Writer writer, LogicImpl logic, int from) {
+        writer.putVarint(logic.markCount());
+        writer.putVarint(logic.shifts());
+        writer.put((byte) (logic.moving() ? 1 : 0));
+        int x = 0;
+        int y = 0;
+        for (int i = from; i < logic.markCount(); i++) {
+            writer.putZigzag(logic.placedX(i) - x);
+            writer.putZigzag(logic.placedY(i) - y);
+            x = logic.placedX(i);
+            y = logic.placedY(i);
+        }
+    }
+
+    public static LogicImpl load(byte[] full) {
+        return load(full, List.of());
+    }
+
+    public static LogicImpl load(byte[] full, List<byte[]> increments) {
+        Reader reader = new Reader(full);
+        Header header = reader.header();
+        if (header.kind != FULL) {
+            throw new IllegalArgumentException("Not a full snapshot");
+        }
+        reader.checkMarks(header.marks);
+        int[] xs = new int[header.marks];
+        int[] ys = new int[header.marks];
+        reader.readMarks(xs, ys, 0, header.marks);
+        for (byte[] increment : increments) {
+            Reader incrementReader = new Reader(increment);
+            Header next = incrementReader.header();
+            // a game only adds marks and shifts, and never stops moving
+            if (next.kind != INCREMENT || next.previousMarks != header.marks || next.shifts < header.shifts
+                    || (header.moving && !next.moving)) {
+                throw new IllegalArgumentException("The increments do not follow each other");
+            }
+            incrementReader.checkMarks(next.marks - next.previousMarks);
+            xs = Arrays.copyOf(xs, next.marks);
+            ys = Arrays.copyOf(ys, next.marks);
+            incrementReader.readMarks(xs, ys, header.marks, next.marks);
+            header = new Header(FULL, header.size, next.previousMarks, next.marks, next.shifts, next.moving);
+        }
+        return LogicImpl.restore(header.size, xs, ys, header.marks, header.shifts, header.moving);
+    }
+
+    public static byte[] compact(byte[] full, List<byte[]> increments) {
+        return save(load(full, increments));
+    }
+
+    private record Header(byte kind, int size, int previousMarks, int marks, int shifts, boolean moving) {}
+
+    private static final class Writer {
+        private final byte[] bytes;
+        private int position = 0;
+
+        private Writer(int marks) {
+            // the kind, four varints, the moving flag, and two varints per mark
+            this.bytes = new byte[1 + 4 * 5 + 1 + marks * 2 * 5];
+        }
+
+        private void put(byte value) {
+            this.bytes[this.position++] = value;
+        }
+
+        private void putVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                this.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            this.put((byte) value);
+        }
+
+        private void putZigzag(int value) {
+            this.putVarint((value << 1) ^ (value >> 31));
+        }
+
+        private byte[] bytes() {
+            return Arrays.copyOf(this.bytes, this.position);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position = 0;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private byte get() {
+            if (this.position >= this.bytes.length) {
+                throw new IllegalArgumentException("Truncated snapshot");
+            }
+            return this.bytes[this.position++];
+        }
+
+        private int getVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = this.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        private int getZigzag() {
+            int value = this.getVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private Header header() {
+            byte kind = this.get();
+            Header header;
+            if (kind == FULL) {
+                int size = this.getVarint();
+                header = new Header(kind, size, 0, this.getVarint(), this.getVarint(), this.get() == 1);
+                if (size <= 0 || (long) size * size > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Bad board size " + size);
+                }
+            } else if (kind == INCREMENT) {
+                int previousMarks = this.getVarint();
+                header = new Header(kind, -1, previousMarks, this.getVarint(), this.getVarint(), this.get() == 1);
+            } else {
+                throw new IllegalArgumentException("Not a snapshot");
+            }
+            if (header.previousMarks < 0 || header.marks < header.previousMarks || header.shifts < 0) {
+                throw new IllegalArgumentException("Bad counts in snapshot: " + header);
+            }
+            return header;
+        }
+
+        // Each mark takes two bytes at least, so a count the snapshot cannot hold is found before allocating for it
+        private void checkMarks(int count) {
+            if (count > (this.bytes.length - this.position) / 2) {
+                throw new IllegalArgumentException("Truncated snapshot: " + count + " marks expected");
+            }
+        }
+
+        private void readMarks(int[] xs, int[] ys, int from, int to) {
+            int x = 0;
+            int y = 0;
+            for (int i = from; i < to; i++) {
+                x += this.getZigzag();
+                y += this.getZigzag();
+                xs[i] = x;
+                ys[i] = y;
+            }
+        }
+    }
+}
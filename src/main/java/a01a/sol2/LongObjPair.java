@@ -0,0 +1,50 @@
+package a01a.sol2;
+
+import java.util.Objects;
+
+/*
+ * A Pair of a long and an object, with the long left unboxed.
+ */
+
+public final class LongObjPair<Y> {
+
+	private final long x;
+	private final Y y;
+
+	public LongObjPair(long x, Y y) {
+		this.x = x;
+		this.y = y;
+	}
+
+	public long getX() {
+		return x;
+	}
+
+	public Y getY() {
+		return y;
+	}
+
+	public Pair<Long, Y> toPair() {
+		return new Pair<>(x, y);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 + Long.hashCode(x)) + Objects.hashCode(y);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof LongObjPair))
+			return false;
+		LongObjPair<?> other = (LongObjPair<?>) obj;
+		return x == other.x && Objects.equals(y, other.y);
+	}
+
+	@Override
+	public String toString() {
+		return "LongObjPair [x=" + x + ", y=" + y + "]";
+	}
+}
@@ -0,0 +1,182 @@
+package a01a.sol2;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+
+/*
+ * A Logic where marks never move: since every shift moves all marks by the same (+1,-1), marks are stored
+ * where they were placed and the number of shifts is applied lazily in getMark and isOver.
+ * Marks can only be placed before the first shift, so stored positions are exactly the hit positions.
+ */
+
+public class OffsetLogicImpl implements Logic {
+
+    private final int size;
+    // Placed positions of the marks, packed by Positions
+    private long[] marks = new long[16];
+    private int markCount = 0;
+    // Grid index of the placed marks: ordinal (1-based) of the mark on each cell, keyed by x*size+y
+    private final int[] grid;
+    private final BitSet occupied;
+    // Where a hit makes the marks move: only needed before the first shift, so it never moves
+    private final ForbiddenZone zone;
+    private int offBoard = 0;
+    // Bounding box of the placed marks, only usable if none of them was placed outside the board
+    private int maxX = Integer.MIN_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int shifts = 0;
+    // What the last hit did: whether it placed a mark (and where) or shifted the marks, or neither
+    private boolean placed = false;
+    private long placedAt;
+    private boolean shifted = false;
+
+    public OffsetLogicImpl(int size) {
+        this.size = size;
+        this.grid = new int[size * size];
+        this.occupied = new BitSet(size * size);
+        this.zone = new ForbiddenZone(size);
+    }
+
+    @Override
+    public Optional<Integer> hit(Position position) {
+        int mark = this.hit(position.x(), position.y());
+        return mark == 0 ? Optional.empty() : Optional.of(mark);
+    }
+
+    @Override
+    public int hit(int x, int y) {
+        this.placed = false;
+        this.shifted = false;
+        if (this.isOver()){
+            return 0;
+        }
+        if (this.shifts > 0 || startMoving(x, y)){
+            Log.getLOGGER().log(Level.INFO, "Move all marks");
+            this.shifts++;
+            this.shifted = true;
+            return 0;
+        }
+        Log.info(() -> "Placing mark at " + new Position(x, y));
+        long position = Positions.pack(x, y);
+        if (this.markCount == this.marks.length) {
+            this.marks = Arrays.copyOf(this.marks, this.markCount * 2);
+        }
+        this.marks[this.markCount++] = position;
+        if (inside(x, y)) {
+            int cell = x * this.size + y;
+            this.grid[cell] = this.markCount;
+            this.occupied.set(cell);
+            this.zone.add(x, y);
+        } else {
+            this.offBoard++;
+        }
+        this.maxX = Math.max(this.maxX, x);
+        this.minY = Math.min(this.minY, y);
+        this.placed = true;
+        this.placedAt = position;
+        return this.markCount;
+    }
+
+    private boolean inside(int x, int y) {
+        return Positions.inBounds(x, y, this.size);
+    }
+
+    private boolean startMoving(int x, int y) {
+        if (this.offBoard > 0) {
+            long position = Positions.pack(x, y);
+            for (int i = 0; i < this.markCount; i++) {
+                if (Positions.neighbours(this.marks[i], position)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return this.zone.contains(x, y);
+    }
+
+    @Override
+    public Optional<Integer> getMark(Position position) {
+        int found = this.lookup(position.x() - this.shifts, position.y() + this.shifts);
+        Optional<Integer> mark = found == 0 ? Optional.empty() : Optional.of(found);
+        Log.info(() -> "Getting mark at position " + position + " = " + mark);
+        return mark;
+    }
+
+    @Override
+    public int getMark(int x, int y) {
+        int mark = this.lookup(x - this.shifts, y + this.shifts);
+        Log.info(() -> "Getting mark at position " + new Position(x, y) + " = "
+                + (mark == 0 ? Optional.empty() : Optional.of(mark)));
+        return mark;
+    }
+
+    // Looks up the mark placed at (x,y), before any shift, 0 if none
+    private int lookup(int x, int y) {
+        if (inside(x, y)) {
+            int cell = x * this.size + y;
+            return this.occupied.get(cell) ? this.grid[cell] : 0;
+        }
+        long position = Positions.pack(x, y);
+        for (int i = 0; i < this.markCount; i++) {
+            if (this.marks[i] == position) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void snapshot(int[] dest) {
+        if (dest.length != this.size * this.size) {
+            throw new IllegalArgumentException("Expected " + this.size * this.size + " cells, not " + dest.length);
+        }
+        Arrays.fill(dest, 0);
+        for (int i = 0; i < this.markCount; i++) {
+            long position = Positions.shift(this.marks[i], this.shifts, -this.shifts);
+            if (Positions.inBounds(position, this.size)) {
+                dest[Positions.x(position) * this.size + Positions.y(position)] = i + 1;
+            }
+        }
+    }
+
+    @Override
+    public boolean isOver() {
+        boolean over = this.offBoard > 0
+                ? this.anyMarkOut()
+                : this.maxX + this.shifts == this.size || this.minY - this.shifts == -1;
+        if (over) Log.getLOGGER().log(Level.INFO, "Application is over");
+        return over;
+    }
+
+    private boolean anyMarkOut() {
+        for (int i = 0; i < this.markCount; i++) {
+            if (Positions.x(this.marks[i]) + this.shifts == this.size
+                    || Positions.y(this.marks[i]) - this.shifts == -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Computed on demand, so that shifting stays constant time when nobody asks for the changes
+    @Override
+    public Set<Position> changes() {
+        if (this.placed) {
+            return Set.of(Positions.toPosition(this.placedAt));
+        }
+        if (!this.shifted) {
+            return Set.of();
+        }
+        Set<Position> changes = new HashSet<>();
+        for (int i = 0; i < this.markCount; i++) {
+            changes.add(Positions.toPosition(Positions.shift(this.marks[i], this.shifts - 1, -this.shifts + 1)));
+            changes.add(Positions.toPosition(Positions.shift(this.marks[i], this.shifts, -this.shifts)));
+        }
+        return Collections.unmodifiableSet(changes);
+    }
+}
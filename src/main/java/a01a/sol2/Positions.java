@@ -0,0 +1,47 @@
+package a01a.sol2;
+
+/*
+ * Positions packed in a long, x in the high int and y in the low one, to handle them without allocating.
+ * Position stays the boxed view of the same coordinates.
+ */
+
+public final class Positions {
+
+    private Positions() {}
+
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public static long pack(Position position) {
+        return pack(position.x(), position.y());
+    }
+
+    public static int x(long position) {
+        return (int) (position >> 32);
+    }
+
+    public static int y(long position) {
+        return (int) position;
+    }
+
+    public static Position toPosition(long position) {
+        return new Position(x(position), y(position));
+    }
+
+    public static boolean neighbours(long p1, long p2) {
+        return Math.abs(x(p1) - x(p2)) <= 1 && Math.abs(y(p1) - y(p2)) <= 1;
+    }
+
+    public static long shift(long position, int dx, int dy) {
+        return pack(x(position) + dx, y(position) + dy);
+    }
+
+    public static boolean inBounds(long position, int size) {
+        return inBounds(x(position), y(position), size);
+    }
+
+    public static boolean inBounds(int x, int y, int size) {
+        return x >= 0 && y >= 0 && x < size && y < size;
+    }
+}
@@ -0,0 +1,146 @@
+package a01a.sol2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/*
+ * Many games hosted together, each in a session of its own: sessions are spread by id over shards, so that
+ * creating, finding and closing sessions on different shards never contend, and each session guards its Logic
+ * with its own lock, so that hits on different sessions run in parallel.
+ * Hits run on virtual threads if the JVM has them, otherwise on a work-stealing pool.
+ */
+
+public class SessionRegistry implements AutoCloseable {
+
+    // A larger board would take too much memory for a single session, and its size squared would overflow an int
+    public static final int MAX_SIZE = 1024;
+
+    private final List<ConcurrentHashMap<Long, Session>> shards;
+    private final AtomicLong nextId = new AtomicLong();
+    private final ExecutorService executor;
+
+    public SessionRegistry() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public SessionRegistry(int shards) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Shards must be positive: " + shards);
+        }
+        List<ConcurrentHashMap<Long, Session>> created = new ArrayList<>();
+        for (int i = Integer.highestOneBit(shards * 2 - 1); i > 0; i--) {
+            created.add(new ConcurrentHashMap<>());
+        }
+        this.shards = List.copyOf(created);
+        this.executor = VirtualThreads.perTaskExecutor(Executors::newWorkStealingPool);
+    }
+
+    // A game and the lock its hits and reads take: a ReentrantLock, as monitors would pin virtual threads
+    private static final class Session {
+        private final int size;
+        private final Logic logic;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Session(int size, Logic logic) {
+            this.size = size;
+            this.logic = logic;
+        }
+    }
+
+    private ConcurrentHashMap<Long, Session> shard(long id) {
+        // Ids are sequential, mixing them spreads neighbouring ids over different shards anyway
+        long mixed = id * 0x9E3779B97F4A7C15L;
+        return this.shards.get((int) (mixed >>> 32) & (this.shards.size() - 1));
+    }
+
+    private Session session(long id) {
+        Session session = this.shard(id).get(id);
+        if (session == null) {
+            throw new NoSuchElementException("No session " + id);
+        }
+        return session;
+    }
+
+    public long open(int size) {
+        return this.open(size, LogicMode.STANDARD);
+    }
+
+    public long open(int size, LogicMode mode) {
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_SIZE + ": " + size);
+        }
+        long id = this.nextId.getAndIncrement();
+        this.shard(id).put(id, new Session(size, mode.create(size)));
+        return id;
+    }
+
+    public boolean close(long id) {
+        return this.shard(id).remove(id) != null;
+    }
+
+    public boolean contains(long id) {
+        return this.shard(id).containsKey(id);
+    }
+
+    public int size(long id) {
+        return this.session(id).size;
+    }
+
+    public int sessions() {
+        int sessions = 0;
+        for (var shard : this.shards) {
+            sessions += shard.size();
+        }
+        return sessions;
+    }
+
+    // Runs the operation on the game of the session, with no other operation on it running meanwhile
+    public <T> T withLogic(long id, Function<? super Logic, ? extends T> operation) {
+        Session session = this.session(id);
+        session.lock.lock();
+        try {
+            return operation.apply(session.logic);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    // Hits of the same session are applied in the order they get its lock: callers wanting them in order wait for each
+    public CompletableFuture<Integer> hit(long id, int x, int y) {
+        Session session;
+        try {
+            session = this.session(id);
+        } catch (NoSuchElementException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            session.lock.lock();
+            try {
+                return session.logic.hit(x, y);
+            } finally {
+                session.lock.unlock();
+            }
+        }, this.executor);
+    }
+
+    public int getMark(long id, int x, int y) {
+        return this.withLogic(id, logic -> logic.getMark(x, y));
+    }
+
+    public boolean isOver(long id) {
+        return this.withLogic(id, Logic::isOver);
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdown();
+    }
+}
@@ -0,0 +1,23 @@
+package a01a.sol2;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/*
+ * Virtual threads where the JVM has them (Java 21 on): looked up by reflection, since this code also runs on 17.
+ */
+
+final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    // An executor starting a virtual thread per task, or the fallback if there are no virtual threads
+    static ExecutorService perTaskExecutor(Supplier<ExecutorService> fallback) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return fallback.get();
+        }
+    }
+}
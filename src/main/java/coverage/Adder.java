@@ -1,10 +1,121 @@
 package coverage;
 
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
 public class Adder {
+
+    // Values summed by one thread in a local long before being added to the shared total
+    private static final int STRIPE = 1 << 16;
+
+    // The Vector API is an incubator module, only used if the JVM was started with --add-modules jdk.incubator.vector
+    private static final boolean VECTORIZED = vectorApiAvailable();
+
+    private static boolean vectorApiAvailable() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorAdder.lanes() > 1;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
     public int add(int i1, int i2){
         if (i1 > 0 && i2 > 0) {
             return i1 + i2;
         }
         return -1;
     }
+
+    // Variants of add for sums not fitting an int: clamped to Integer.MAX_VALUE, thrown as ArithmeticException, or widened
+    public int addSaturating(int i1, int i2) {
+        if (i1 > 0 && i2 > 0) {
+            return (int) Math.min((long) i1 + i2, Integer.MAX_VALUE);
+        }
+        return -1;
+    }
+
+    public int addExact(int i1, int i2) {
+        if (i1 > 0 && i2 > 0) {
+            return Math.addExact(i1, i2);
+        }
+        return -1;
+    }
+
+    public long addWide(int i1, int i2) {
+        if (i1 > 0 && i2 > 0) {
+            return (long) i1 + i2;
+        }
+        return -1;
+    }
+
+    // The sum of all the values as a long, computed in parallel
+    public static long sum(int[] values) {
+        LongAdder total = new LongAdder();
+        sumInto(values, total);
+        return total.sum();
+    }
+
+    /*
+     * Adds all the values to a total shared with other threads: each thread sums a stripe of values in a local long
+     * and adds it to the total only once, whose cells (as a LongAdder) keep the threads from contending.
+     */
+    public static void sumInto(int[] values, LongAdder total) {
+        int stripes = (values.length + STRIPE - 1) / STRIPE;
+        IntStream.range(0, stripes).parallel().forEach(stripe -> {
+            long sum = 0;
+            for (int i = stripe * STRIPE, end = Math.min(values.length, i + STRIPE); i < end; i++) {
+                sum += values[i];
+            }
+            total.add(sum);
+        });
+    }
+
+    // The same over a stream, each split of the parallel stream summing in its own accumulator
+    public static long sum(IntStream values) {
+        return values.parallel()
+                .collect(LongAdder::new, LongAdder::add, (left, right) -> left.add(right.sum()))
+                .sum();
+    }
+
+    // add applied to each index: out[i] = add(a[i], b[i])
+    public void addAll(int[] a, int[] b, int[] out) {
+        checkLengths(a, b, out);
+        if (VECTORIZED) {
+            VectorAdder.addAll(a, b, out);
+        } else {
+            addBranchFree(a, b, out, 0);
+        }
+    }
+
+    // The same as addAll without the Vector API
+    public void addAllBranchFree(int[] a, int[] b, int[] out) {
+        checkLengths(a, b, out);
+        addBranchFree(a, b, out, 0);
+    }
+
+    private static void checkLengths(int[] a, int[] b, int[] out) {
+        if (a.length != b.length || a.length != out.length) {
+            throw new IllegalArgumentException("Different lengths: " + a.length + ", " + b.length + ", " + out.length);
+        }
+    }
+
+    /*
+     * For i > 0 both -i and ~i are negative, for i == 0 -i is not and for any other i (MIN_VALUE included) ~i is not:
+     * so the sign of (-i & ~i) tells whether i is positive, and shifting it gives a mask of all ones or all zeros.
+     */
+    static void addBranchFree(int[] a, int[] b, int[] out, int from) {
+        for (int i = from; i < a.length; i++) {
+            int x = a[i];
+            int y = b[i];
+            int mask = ((-x & ~x) & (-y & ~y)) >> 31;
+            out[i] = ((x + y) & mask) | ~mask;
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package coverage;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * Adder.addAll on the Vector API: the rule of Adder.add becomes a mask of the lanes where both values are positive,
+ * blending the sums over a vector of -1. Only loaded by Adder when the jdk.incubator.vector module is present.
+ */
+
+final class VectorAdder {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final IntVector MINUS_ONE = IntVector.broadcast(SPECIES, -1);
+
+    private VectorAdder() {}
+
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    static void addAll(int[] a, int[] b, int[] out) {
+        int bound = SPECIES.loopBound(a.length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            IntVector x = IntVector.fromArray(SPECIES, a, i);
+            IntVector y = IntVector.fromArray(SPECIES, b, i);
+            VectorMask<Integer> positive = x.compare(VectorOperators.GT, 0).and(y.compare(VectorOperators.GT, 0));
+            MINUS_ONE.blend(x.add(y), positive).intoArray(out, i);
+        }
+        // The tail not filling a whole vector
+        Adder.addBranchFree(a, b, out, i);
+    }
+}
@@ -0,0 +1,64 @@
+package devices;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * A StandardDevice that many threads can use at once without locks: its state is a single word,
+ * updated by CAS, holding the on flag in its lowest bit and the number of resets (the epoch) above it.
+ * The failing policy is shared by all the threads, so it has to be thread-safe itself, as RandomFailing is
+ * with its default source.
+ */
+
+public class ConcurrentStandardDevice implements Device {
+    private static final int ON = 1;
+    private static final int EPOCH = 2;
+
+    private final FailingPolicy failingPolicy;
+    private final AtomicInteger state = new AtomicInteger();
+
+    public ConcurrentStandardDevice(FailingPolicy failingPolicy) {
+        this.failingPolicy = Objects.requireNonNull(failingPolicy);
+    }
+
+    @Override
+    public OnResult tryOn() {
+        int epoch = this.state.get() & ~ON;
+        if (!this.failingPolicy.attemptOn()){
+            return OnResult.FAILED;
+        }
+        int current;
+        do {
+            current = this.state.get();
+            // a reset since the attempt comes after this on(), which leaves the device off
+            if ((current & ~ON) != epoch || (current & ON) != 0) {
+                return OnResult.SWITCHED_ON;
+            }
+        } while (!this.state.compareAndSet(current, current | ON));
+        return OnResult.SWITCHED_ON;
+    }
+
+    @Override
+    public void off() {
+        this.state.updateAndGet(s -> s & ~ON);
+    }
+
+    @Override
+    public boolean isOn() {
+        return (this.state.get() & ON) != 0;
+    }
+
+    @Override
+    public void reset() {
+        this.state.updateAndGet(s -> (s & ~ON) + EPOCH);
+        this.failingPolicy.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentStandardDevice{" +
+                "policy=" + failingPolicy.policyName() +
+                ", on=" + isOn() +
+                '}';
+    }
+}
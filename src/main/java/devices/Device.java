@@ -1,7 +1,13 @@
 package devices;
 
 public interface Device {
-    void on() throws IllegalStateException;
+    OnResult tryOn();
+    // A thin wrapper over tryOn() for the callers that prefer the exception
+    default void on() throws IllegalStateException {
+        if (this.tryOn() == OnResult.FAILED) {
+            throw new IllegalStateException();
+        }
+    }
     void off();
     boolean isOn();
     void reset();
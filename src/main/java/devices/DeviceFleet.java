@@ -0,0 +1,91 @@
+package devices;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/*
+ * Many devices operated together: bulk operations run in parallel across the cores, each device being
+ * touched by one thread only, and report which devices failed instead of throwing.
+ */
+
+public class DeviceFleet {
+    private final List<Device> devices;
+
+    public DeviceFleet(List<? extends Device> devices) {
+        this.devices = List.copyOf(devices);
+    }
+
+    // A fleet of StandardDevices, each with its own policy from the supplier
+    public DeviceFleet(int size, Supplier<? extends FailingPolicy> failingPolicies) {
+        Objects.requireNonNull(failingPolicies);
+        List<Device> standardDevices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            standardDevices.add(new StandardDevice(failingPolicies.get()));
+        }
+        this.devices = List.copyOf(standardDevices);
+    }
+
+    public int size() {
+        return this.devices.size();
+    }
+
+    public Device get(int index) {
+        return this.devices.get(index);
+    }
+
+    public FleetResult onAll() {
+        return this.apply(i -> this.devices.get(i).tryOn() == OnResult.SWITCHED_ON);
+    }
+
+    public FleetResult offAll() {
+        return this.apply(i -> {
+            this.devices.get(i).off();
+            return true;
+        });
+    }
+
+    public FleetResult resetAll() {
+        return this.apply(i -> {
+            this.devices.get(i).reset();
+            return true;
+        });
+    }
+
+    public long countOn() {
+        return this.devices.parallelStream().filter(Device::isOn).count();
+    }
+
+    private FleetResult apply(IntPredicate operation) {
+        BitSet failed = IntStream.range(0, this.devices.size())
+                .parallel()
+                .filter(i -> !operation.test(i))
+                .collect(BitSet::new, BitSet::set, BitSet::or);
+        return new FleetResult(this.devices.size(), failed);
+    }
+
+    // The outcome of a bulk operation: how many devices it was applied to, and the indexes of the ones that failed
+    public record FleetResult(int devices, BitSet failures) {
+
+        public FleetResult {
+            failures = (BitSet) failures.clone();
+        }
+
+        public int failed() {
+            return this.failures.cardinality();
+        }
+
+        public int succeeded() {
+            return this.devices - this.failed();
+        }
+
+        @Override
+        public BitSet failures() {
+            return (BitSet) this.failures.clone();
+        }
+    }
+}
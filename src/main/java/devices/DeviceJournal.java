@@ -0,0 +1,290 @@
+package devices;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/*
+ * An append-only binary journal of the device state transitions and policy outcomes.
+ * Callers only put the entry in a lock-free queue, waking the writer if it is parked; a single writer thread
+ * appends the entries in batches of fixed-width records (one write, and one force if synchronous, per batch),
+ * and parks when the queue is empty.
+ * Replaying the journal gives back the state of the devices.
+ */
+
+public class DeviceJournal implements AutoCloseable {
+
+    public enum Event { ON, OFF, RESET, ATTEMPT_ON, POLICY_RESET }
+
+    // sequence, time, device, event, success, padding
+    public static final int RECORD_SIZE = 24;
+    private static final int BATCH = 1024;
+
+    // The sequence number is given by the writer, in the order of the journal
+    public record Entry(long sequence, long timeMillis, int device, Event event, boolean success) {}
+
+    private final FileChannel channel;
+    private final boolean sync;
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong appended = new AtomicLong();
+    private final Object progress = new Object();
+    private long sequence;
+    private volatile long written = 0;
+    // Set by the writer before it checks the queue a last time and parks, so that callers know to unpark it
+    private volatile boolean parked = false;
+    private volatile boolean closed = false;
+    private volatile IOException failure = null;
+    private final Thread writer;
+
+    /*
+     * If sync, every batch is forced to the disk before being counted as written.
+     * An existing journal is continued after its last complete record: a partial one, left by a crash
+     * while it was written, is cut away.
+     */
+    public DeviceJournal(Path file, boolean sync) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            long size = this.channel.size();
+            this.channel.truncate(size - size % RECORD_SIZE);
+            this.sequence = this.channel.size() / RECORD_SIZE;
+            this.channel.position(this.channel.size());
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+        this.sync = sync;
+        this.writer = new Thread(this::write, "device-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void record(int device, Event event, boolean success) {
+        if (this.closed) {
+            throw new IllegalStateException("The journal is closed");
+        }
+        if (this.failure != null) {
+            throw new IllegalStateException("The journal failed", this.failure);
+        }
+        this.queue.offer(new Entry(-1, System.currentTimeMillis(), device, event, success));
+        this.appended.incrementAndGet();
+        if (this.parked) {
+            LockSupport.unpark(this.writer);
+        }
+    }
+
+    private void write() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH * RECORD_SIZE);
+        try {
+            while (true) {
+                int count = 0;
+                Entry entry;
+                while (count < BATCH && (entry = this.queue.poll()) != null) {
+                    batch.putLong(this.sequence++)
+                            .putLong(entry.timeMillis())
+                            .putInt(entry.device())
+                            .put((byte) entry.event().ordinal())
+                            .put((byte) (entry.success() ? 1 : 0))
+                            .putShort((short) 0);
+                    count++;
+                }
+                if (count == 0) {
+                    if (this.closed) {
+                        return;
+                    }
+                    this.parked = true;
+                    // an entry offered before the flag was seen is found here, any later one unparks the writer
+                    if (this.queue.isEmpty() && !this.closed) {
+                        LockSupport.park(this);
+                    }
+                    this.parked = false;
+                    continue;
+                }
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    this.channel.write(batch);
+                }
+                if (this.sync) {
+                    this.channel.force(false);
+                }
+                batch.clear();
+                synchronized (this.progress) {
+                    this.written += count;
+                    this.progress.notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            synchronized (this.progress) {
+                this.failure = e;
+                this.progress.notifyAll();
+            }
+            // nothing will write them any more
+            this.queue.clear();
+        }
+    }
+
+    // Waits until all the entries recorded so far are written
+    public void flush() throws IOException {
+        long target = this.appended.get();
+        synchronized (this.progress) {
+            while (this.written < target) {
+                if (this.failure != null) {
+                    throw this.failure;
+                }
+                try {
+                    this.progress.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while flushing the journal");
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.closed = true;
+            LockSupport.unpark(this.writer);
+            try {
+                this.writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    public static void replay(Path file, Consumer<Entry> consumer) throws IOException {
+        Event[] events = Event.values();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer batch = ByteBuffer.allocateDirect(BATCH * RECORD_SIZE);
+            while (channel.read(batch) > 0 || batch.position() > 0) {
+                batch.flip();
+                if (batch.remaining() < RECORD_SIZE) {
+                    // the last record was not completely written
+                    break;
+                }
+                while (batch.remaining() >= RECORD_SIZE) {
+                    long sequence = batch.getLong();
+                    long time = batch.getLong();
+                    int device = batch.getInt();
+                    int ordinal = batch.get();
+                    if (ordinal < 0 || ordinal >= events.length) {
+                        throw new IOException("Corrupt record " + sequence + " in " + file + ": event " + ordinal);
+                    }
+                    Event event = events[ordinal];
+                    boolean success = batch.get() == 1;
+                    batch.getShort();
+                    consumer.accept(new Entry(sequence, time, device, event, success));
+                }
+                batch.compact();
+            }
+        }
+    }
+
+    // The devices that are on according to the journal
+    public static BitSet rebuild(Path file) throws IOException {
+        BitSet on = new BitSet();
+        replay(file, entry -> {
+            switch (entry.event()) {
+                case ON -> {
+                    if (entry.success()) {
+                        on.set(entry.device());
+                    }
+                }
+                case OFF, RESET -> on.clear(entry.device());
+                default -> {}
+            }
+        });
+        return on;
+    }
+
+    // A device whose transitions are recorded in the journal
+    public Device journaled(int id, Device device) {
+        return new JournaledDevice(id, device);
+    }
+
+    // A policy whose outcomes are recorded in the journal
+    public FailingPolicy journaled(int id, FailingPolicy policy) {
+        return new JournaledPolicy(id, policy);
+    }
+
+    private final class JournaledDevice implements Device {
+        private final int id;
+        private final Device device;
+
+        private JournaledDevice(int id, Device device) {
+            this.id = id;
+            this.device = device;
+        }
+
+        @Override
+        public OnResult tryOn() {
+            OnResult result = this.device.tryOn();
+            record(this.id, Event.ON, result == OnResult.SWITCHED_ON);
+            return result;
+        }
+
+        @Override
+        public void off() {
+            this.device.off();
+            record(this.id, Event.OFF, true);
+        }
+
+        @Override
+        public boolean isOn() {
+            return this.device.isOn();
+        }
+
+        @Override
+        public void reset() {
+            this.device.reset();
+            record(this.id, Event.RESET, true);
+        }
+
+        @Override
+        public String toString() {
+            return this.device.toString();
+        }
+    }
+
+    private final class JournaledPolicy implements FailingPolicy {
+        private final int id;
+        private final FailingPolicy policy;
+
+        private JournaledPolicy(int id, FailingPolicy policy) {
+            this.id = id;
+            this.policy = policy;
+        }
+
+        @Override
+        public boolean attemptOn() {
+            boolean success = this.policy.attemptOn();
+            record(this.id, Event.ATTEMPT_ON, success);
+            return success;
+        }
+
+        @Override
+        public void reset() {
+            this.policy.reset();
+            record(this.id, Event.POLICY_RESET, true);
+        }
+
+        @Override
+        public String policyName() {
+            return this.policy.policyName();
+        }
+    }
+}
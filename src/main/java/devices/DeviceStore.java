@@ -0,0 +1,313 @@
+package devices;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/*
+ * Many devices stored by columns instead of as objects: the on and failed states are bitsets,
+ * the kind of failing policy of each device is a byte. Single devices are reachable through
+ * flyweight Device handles, bulk operations work a 64-device word at a time.
+ * The columns live either on the heap or in a memory-mapped file, which a restarted process reattaches to.
+ */
+
+public class DeviceStore {
+    public static final byte NEVER_FAILING = 0;
+    public static final byte RANDOM_FAILING = 1;
+
+    // Layout of a mapped file: magic, version, size, padding, then the on words, the failed words (in native
+    // byte order) and the policies
+    private static final int MAGIC = 0x44455653;
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+
+    private final int size;
+    private final LongBuffer on;
+    private final LongBuffer failed;
+    private final ByteBuffer policies;
+    // used by bulk operations from many threads, so it has to be thread-safe
+    private final RandomGenerator random;
+    // null for a store on the heap
+    private final MappedByteBuffer mapping;
+
+    public DeviceStore(int size, byte policy) {
+        this(size, policy, RandomSources.threadLocal());
+    }
+
+    public DeviceStore(int size, byte policy, RandomGenerator random) {
+        this(filled(size, policy), random);
+    }
+
+    public DeviceStore(byte[] policies, RandomGenerator random) {
+        for (byte policy : policies) {
+            checkPolicy(policy);
+        }
+        this.size = policies.length;
+        this.on = LongBuffer.wrap(new long[words(this.size)]);
+        this.failed = LongBuffer.wrap(new long[words(this.size)]);
+        this.policies = ByteBuffer.wrap(policies.clone());
+        this.random = Objects.requireNonNull(random);
+        this.mapping = null;
+    }
+
+    private DeviceStore(MappedByteBuffer mapping, int size, RandomGenerator random) {
+        int words = words(size);
+        this.size = size;
+        this.on = mapping.slice(HEADER, words * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        this.failed = mapping.slice(HEADER + words * Long.BYTES, words * Long.BYTES)
+                .order(ByteOrder.nativeOrder()).asLongBuffer();
+        this.policies = mapping.slice(HEADER + 2 * words * Long.BYTES, size);
+        this.random = Objects.requireNonNull(random);
+        this.mapping = mapping;
+    }
+
+    /*
+     * A store kept in a memory-mapped file: if the file already holds a store it is reattached as it is,
+     * otherwise, when the file does not exist or is empty, a new store of devices all off is created.
+     * Any other file is left alone: it is not a store, or one whose creation did not complete.
+     * Every change is written straight into the mapping, so it survives a crash of the process;
+     * force() also makes the changes so far survive a crash of the machine.
+     */
+    public static DeviceStore mapped(Path file, int size, byte policy) throws IOException {
+        checkPolicy(policy);
+        if (Files.exists(file) && Files.size(file) > 0) {
+            if (!holdsStore(file)) {
+                throw new IllegalArgumentException(file + " does not hold a device store");
+            }
+            DeviceStore store = reattach(file);
+            if (store.size() != size) {
+                throw new IllegalArgumentException("The store in " + file + " has " + store.size() + " devices");
+            }
+            for (int i = 0; i < size; i++) {
+                if (store.policies.get(i) != policy) {
+                    throw new IllegalArgumentException("The store in " + file + " has device " + i
+                            + " with policy " + store.policyName(i));
+                }
+            }
+            return store;
+        }
+        int words = words(size);
+        MappedByteBuffer mapping = map(file, HEADER + 2L * words * Long.BYTES + size);
+        DeviceStore store = new DeviceStore(mapping, size, RandomSources.threadLocal());
+        for (int i = 0; i < size; i++) {
+            store.policies.put(i, policy);
+        }
+        // the header comes last, so that a file whose creation did not complete is not taken for a store
+        mapping.putInt(8, size);
+        mapping.putInt(4, VERSION);
+        mapping.putInt(0, MAGIC);
+        mapping.force();
+        return store;
+    }
+
+    public static DeviceStore reattach(Path file) throws IOException {
+        MappedByteBuffer mapping = map(file, Files.size(file));
+        if (mapping.capacity() < HEADER || mapping.getInt(0) != MAGIC || mapping.getInt(4) != VERSION) {
+            throw new IllegalArgumentException(file + " does not hold a device store");
+        }
+        int size = mapping.getInt(8);
+        if (mapping.capacity() != HEADER + 2L * words(size) * Long.BYTES + size) {
+            throw new IllegalArgumentException(file + " is truncated");
+        }
+        return new DeviceStore(mapping, size, RandomSources.threadLocal());
+    }
+
+    private static boolean holdsStore(Path file) throws IOException {
+        if (Files.size(file) < HEADER) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.read(header, 0);
+        }
+        return header.getInt(0) == MAGIC;
+    }
+
+    private static MappedByteBuffer map(Path file, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        }
+    }
+
+    // Writes the changes so far to the file, for a store that is mapped
+    public void force() {
+        if (this.mapping != null) {
+            this.mapping.force();
+        }
+    }
+
+    private static byte[] filled(int size, byte policy) {
+        byte[] policies = new byte[size];
+        Arrays.fill(policies, policy);
+        return policies;
+    }
+
+    private static void checkPolicy(byte policy) {
+        if (policy != NEVER_FAILING && policy != RANDOM_FAILING) {
+            throw new IllegalArgumentException("Unknown policy " + policy);
+        }
+    }
+
+    private static int words(int size) {
+        return (size + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static boolean get(LongBuffer bits, int index) {
+        return (bits.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    private static void set(LongBuffer bits, int index) {
+        bits.put(index >>> 6, bits.get(index >>> 6) | (1L << index));
+    }
+
+    private static void clear(LongBuffer bits, int index) {
+        bits.put(index >>> 6, bits.get(index >>> 6) & ~(1L << index));
+    }
+
+    private static void fill(LongBuffer bits, long value) {
+        for (int i = 0; i < bits.capacity(); i++) {
+            bits.put(i, value);
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean attemptOn(int index) {
+        Objects.checkIndex(index, this.size);
+        if (this.policies.get(index) == NEVER_FAILING) {
+            return true;
+        }
+        if (!get(this.failed, index) && this.random.nextBoolean()) {
+            set(this.failed, index);
+        }
+        return !get(this.failed, index);
+    }
+
+    public OnResult tryOn(int index) {
+        if (!this.attemptOn(index)) {
+            return OnResult.FAILED;
+        }
+        set(this.on, index);
+        return OnResult.SWITCHED_ON;
+    }
+
+    public void on(int index) throws IllegalStateException {
+        if (this.tryOn(index) == OnResult.FAILED) {
+            throw new IllegalStateException();
+        }
+    }
+
+    public void off(int index) {
+        Objects.checkIndex(index, this.size);
+        clear(this.on, index);
+    }
+
+    public boolean isOn(int index) {
+        Objects.checkIndex(index, this.size);
+        return get(this.on, index);
+    }
+
+    public void reset(int index) {
+        this.off(index);
+        clear(this.failed, index);
+    }
+
+    public String policyName(int index) {
+        Objects.checkIndex(index, this.size);
+        return this.policies.get(index) == NEVER_FAILING ? "never" : "random";
+    }
+
+    public long countOn() {
+        long count = 0;
+        for (int i = 0; i < this.on.capacity(); i++) {
+            count += Long.bitCount(this.on.get(i));
+        }
+        return count;
+    }
+
+    // Switches on every device, each word of 64 devices being handled by a single thread
+    public DeviceFleet.FleetResult onAll() {
+        long[] failures = new long[this.on.capacity()];
+        IntStream.range(0, this.on.capacity()).parallel().forEach(word -> {
+            long switchedOn = 0;
+            int last = Math.min(this.size, (word + 1) * Long.SIZE);
+            for (int index = word * Long.SIZE; index < last; index++) {
+                if (this.attemptOn(index)) {
+                    switchedOn |= 1L << index;
+                } else {
+                    failures[word] |= 1L << index;
+                }
+            }
+            this.on.put(word, this.on.get(word) | switchedOn);
+        });
+        return new DeviceFleet.FleetResult(this.size, BitSet.valueOf(failures));
+    }
+
+    public DeviceFleet.FleetResult offAll() {
+        fill(this.on, 0L);
+        return new DeviceFleet.FleetResult(this.size, new BitSet());
+    }
+
+    public DeviceFleet.FleetResult resetAll() {
+        fill(this.on, 0L);
+        fill(this.failed, 0L);
+        return new DeviceFleet.FleetResult(this.size, new BitSet());
+    }
+
+    // A flyweight view of one device of the store, holding nothing but its index
+    public Device device(int index) {
+        Objects.checkIndex(index, this.size);
+        return new Handle(index);
+    }
+
+    private final class Handle implements Device {
+        private final int index;
+
+        private Handle(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public OnResult tryOn() {
+            return DeviceStore.this.tryOn(this.index);
+        }
+
+        @Override
+        public void off() {
+            DeviceStore.this.off(this.index);
+        }
+
+        @Override
+        public boolean isOn() {
+            return DeviceStore.this.isOn(this.index);
+        }
+
+        @Override
+        public void reset() {
+            DeviceStore.this.reset(this.index);
+        }
+
+        @Override
+        public String toString() {
+            return "StoredDevice{" +
+                    "index=" + index +
+                    ", policy=" + policyName(index) +
+                    ", on=" + isOn() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package devices;
+
+/*
+ * The outcome of switching a device on without exceptions: failures are frequent with some policies,
+ * and an exception would pay for its stack trace every time.
+ */
+
+public enum OnResult {
+    SWITCHED_ON,
+    FAILED
+}
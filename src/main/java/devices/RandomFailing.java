@@ -1,19 +1,41 @@
 package devices;
 
-import java.util.Random;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.random.RandomGenerator;
+
+/*
+ * Thread-safe with the default source, which draws from the calling thread, so it can be shared by the threads
+ * of a ConcurrentStandardDevice; a generator given explicitly has to be thread-safe for that too.
+ */
 
 public class RandomFailing implements FailingPolicy {
-    private final Random random = new Random();
-    private boolean failed = false;
+    private final RandomGenerator random;
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    public RandomFailing() {
+        this(RandomSources.threadLocal());
+    }
+
+    public RandomFailing(RandomGenerator random) {
+        this.random = Objects.requireNonNull(random);
+    }
+
     @Override
     public boolean attemptOn() {
-        this.failed = this.failed || random.nextBoolean();
-        return !this.failed;
+        if (this.failed.get()) {
+            return false;
+        }
+        if (this.random.nextBoolean()) {
+            this.failed.set(true);
+            return false;
+        }
+        return true;
     }
 
     @Override
     public void reset() {
-        this.failed = false;
+        this.failed.set(false);
     }
 
     @Override
@@ -0,0 +1,43 @@
+package devices;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/*
+ * Sources of randomness for the failing policies.
+ * By default a policy draws from the generator of the calling thread, which is neither shared between threads
+ * nor allocated per policy; a seeded source gives each policy its own generator, reproducibly.
+ */
+
+public final class RandomSources {
+
+    private static final RandomGenerator THREAD_LOCAL = new RandomGenerator() {
+        @Override
+        public long nextLong() {
+            return ThreadLocalRandom.current().nextLong();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return ThreadLocalRandom.current().nextBoolean();
+        }
+    };
+
+    private RandomSources() {}
+
+    public static RandomGenerator threadLocal() {
+        return THREAD_LOCAL;
+    }
+
+    // Each generator supplied is split from a root seeded generator: the same seed gives the same generators, in order
+    public static Supplier<RandomGenerator> seeded(long seed) {
+        SplittableRandom root = new SplittableRandom(seed);
+        return () -> {
+            synchronized (root) {
+                return root.split();
+            }
+        };
+    }
+}
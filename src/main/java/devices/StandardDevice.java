@@ -12,11 +12,12 @@ public class StandardDevice implements Device {
     //...
 
     @Override
-    public void on() throws IllegalStateException {
+    public OnResult tryOn() {
         if (!this.failingPolicy.attemptOn()){
-            throw new IllegalStateException();
+            return OnResult.FAILED;
         }
         this.on = true;
+        return OnResult.SWITCHED_ON;
     }
 
     @Override
@@ -6,11 +6,12 @@ public class BrokenDevice extends Device {
     }
 
     @Override
-    public void on() throws IllegalStateException {
+    public OnResult tryOn() {
         if (!this.failingPolicy.attemptOn()){
-            throw new IllegalStateException();
+            return OnResult.FAILED;
         }
         this.on = false;
+        return OnResult.SWITCHED_ON;
     }
 
     @Override
@@ -10,7 +10,15 @@ public abstract class Device {
         this.failingPolicy = Objects.requireNonNull(failingPolicy);
     }
 
-    abstract void on() throws IllegalStateException;
+    abstract OnResult tryOn();
+
+    // A thin wrapper over tryOn() for the callers that prefer the exception
+    public void on() throws IllegalStateException {
+        if (this.tryOn() == OnResult.FAILED) {
+            throw new IllegalStateException();
+        }
+    }
+
     abstract void off();
     abstract boolean isOn();
     abstract void reset();
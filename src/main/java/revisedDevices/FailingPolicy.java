@@ -1,11 +1,24 @@
 package revisedDevices;
 
-import java.util.Random;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public abstract class FailingPolicy {
-    protected final Random random = new Random();
+    // By default every draw goes to ThreadLocalRandom, so policies share no state and allocate nothing
+    private static final RandomGenerator THREAD_LOCAL = () -> ThreadLocalRandom.current().nextLong();
+
+    protected final RandomGenerator random;
     protected boolean failed = false;
 
+    public FailingPolicy() {
+        this(THREAD_LOCAL);
+    }
+
+    public FailingPolicy(RandomGenerator random) {
+        this.random = Objects.requireNonNull(random);
+    }
+
     abstract boolean attemptOn();
     abstract void reset();
     abstract String policyName();
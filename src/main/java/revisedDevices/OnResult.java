@@ -0,0 +1,10 @@
+package revisedDevices;
+
+/*
+ * The outcome of switching a device on without exceptions, for this hierarchy of devices.
+ */
+
+public enum OnResult {
+    SWITCHED_ON,
+    FAILED
+}
@@ -1,8 +1,14 @@
 package revisedDevices;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class RandomFailing extends FailingPolicy {
+    public RandomFailing() {}
+
+    public RandomFailing(RandomGenerator random) {
+        super(random);
+    }
+
     @Override
     public boolean attemptOn() {
         this.failed = this.failed || random.nextBoolean();
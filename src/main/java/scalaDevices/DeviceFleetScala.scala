@@ -0,0 +1,118 @@
+import java.util.concurrent.{ExecutorService, Executors, ThreadFactory}
+
+import scala.collection.{immutable, mutable}
+import scala.concurrent.ExecutionContext.Implicits.global
+import scala.concurrent.{Future, Promise}
+import scala.util.Try
+
+// What a batch can ask a device to do
+sealed trait DeviceCommandScala
+
+object DeviceCommandScala {
+  case object TryOn extends DeviceCommandScala
+  case object Off extends DeviceCommandScala
+  case object Reset extends DeviceCommandScala
+}
+
+// The outcome of a batch: how many commands it ran, and the devices that failed to switch on
+case class BatchResultScala(commands: Int, failures: immutable.BitSet)
+
+// The devices on, as published by the shards after their last batch
+case class FleetSnapshotScala(size: Int, on: immutable.BitSet) {
+  def isOn(device: Int): Boolean = on(device)
+  def countOn: Int = on.size
+}
+
+/*
+ * Many DeviceScala driven concurrently. Devices are split in shards, each with a mailbox run by a single thread:
+ * a device is only ever touched by the thread of its shard, so its vars need neither locks nor volatile.
+ * Commands are submitted in batches, one mailbox message per shard involved. After each batch a shard publishes
+ * an immutable snapshot of its devices on, which is what readers get, without going through the mailboxes.
+ */
+class DeviceFleetScala(devices: Seq[DeviceScala], shards: Int) {
+  require(shards > 0, "shards must be positive")
+
+  private val all: Vector[DeviceScala] = devices.toVector
+  private val shardSize = math.max(1, (all.size + shards - 1) / shards)
+  private val shardList: Vector[Shard] =
+    all.grouped(shardSize).zipWithIndex.map { case (group, i) => new Shard(group, i * shardSize) }.toVector
+
+  def size: Int = all.size
+
+  // Runs the commands, in order for each device, and completes once every shard involved has run its part
+  def submit(commands: Seq[(Int, DeviceCommandScala)]): Future[BatchResultScala] = {
+    commands.foreach { case (device, _) => require(device >= 0 && device < size, s"no device $device") }
+    val parts = commands.groupBy { case (device, _) => device / shardSize }
+      .map { case (shard, shardCommands) => shardList(shard).post(shardCommands) }
+    Future.sequence(parts).map(failures => BatchResultScala(commands.size, failures.foldLeft(immutable.BitSet.empty)(_ | _)))
+  }
+
+  def tryOnAll(): Future[BatchResultScala] = this.submitAll(DeviceCommandScala.TryOn)
+
+  def offAll(): Future[BatchResultScala] = this.submitAll(DeviceCommandScala.Off)
+
+  def resetAll(): Future[BatchResultScala] = this.submitAll(DeviceCommandScala.Reset)
+
+  private def submitAll(command: DeviceCommandScala): Future[BatchResultScala] =
+    this.submit(all.indices.map(device => (device, command)))
+
+  def isOn(device: Int): Boolean = {
+    val shard = shardList(device / shardSize)
+    shard.snapshot(device - shard.offset)
+  }
+
+  def snapshot(): FleetSnapshotScala = FleetSnapshotScala(size, shardList.foldLeft(immutable.BitSet.empty) {
+    (on, shard) => on ++ shard.snapshot.iterator.map(_ + shard.offset)
+  })
+
+  // Batches already submitted still run, new ones are rejected
+  def shutdown(): Unit = shardList.foreach(_.shutdown())
+
+  private class Shard(devices: Vector[DeviceScala], val offset: Int) {
+    private val mailbox: ExecutorService = Executors.newSingleThreadExecutor(DeviceFleetScala.shardThreads)
+    // Only used by the mailbox thread, after being filled here
+    private val on = mutable.BitSet(devices.indices.filter(devices(_).isOn()): _*)
+    @volatile var snapshot: immutable.BitSet = this.publish()
+
+    private def publish(): immutable.BitSet = immutable.BitSet.fromBitMaskNoCopy(on.toBitMask)
+
+    def post(commands: Seq[(Int, DeviceCommandScala)]): Future[immutable.BitSet] = {
+      val promise = Promise[immutable.BitSet]()
+      mailbox.execute(() => promise.complete(Try(this.run(commands))))
+      promise.future
+    }
+
+    // The devices of the batch that failed to switch on
+    private def run(commands: Seq[(Int, DeviceCommandScala)]): immutable.BitSet = {
+      val failures = immutable.BitSet.newBuilder
+      try {
+        commands.foreach { case (index, command) =>
+          val device = devices(index - offset)
+          command match {
+            case DeviceCommandScala.TryOn => if (device.tryOn() == OnResultScala.Failed) failures += index
+            case DeviceCommandScala.Off => device.off()
+            case DeviceCommandScala.Reset => device.reset()
+          }
+          if (device.isOn()) on += index - offset else on -= index - offset
+        }
+      } finally {
+        snapshot = this.publish()
+      }
+      failures.result()
+    }
+
+    def shutdown(): Unit = mailbox.shutdown()
+  }
+}
+
+object DeviceFleetScala {
+  private val shardThreads: ThreadFactory = (runnable: Runnable) => {
+    val thread = new Thread(runnable, "device-fleet-shard")
+    thread.setDaemon(true)
+    thread
+  }
+
+  // A fleet of StandardDeviceScala, each with its own policy
+  def apply(size: Int, shards: Int, failingPolicies: () => FailingPolicyScala): DeviceFleetScala =
+    new DeviceFleetScala(Vector.fill(size)(new StandardDeviceScala(failingPolicies())), shards)
+}
@@ -1,7 +1,21 @@
 trait DeviceScala {
+  def tryOn(): OnResultScala
+  // A thin wrapper over tryOn() for the callers that prefer the exception
   @throws(classOf[IllegalStateException])
-  def on(): Unit
+  def on(): Unit = {
+    if (tryOn() == OnResultScala.Failed) {
+      throw new IllegalStateException()
+    }
+  }
   def off(): Unit
   def isOn(): Boolean
   def reset(): Unit
-}
\ No newline at end of file
+}
+
+// The outcome of switching a device on without paying for an exception
+sealed trait OnResultScala
+
+object OnResultScala {
+  case object SwitchedOn extends OnResultScala
+  case object Failed extends OnResultScala
+}
@@ -3,11 +3,13 @@ class StandardDeviceScala(failingPolicy: FailingPolicyScala) extends DeviceScala
 
   require(Option(failingPolicy).isDefined, "failingPolicy cannot be null")
 
-  override def on(): Unit = {
+  override def tryOn(): OnResultScala = {
     if (!failingPolicy.attemptOn()) {
-      throw new IllegalStateException()
+      OnResultScala.Failed
+    } else {
+      this.deviceOn = true
+      OnResultScala.SwitchedOn
     }
-    this.deviceOn = true
   }
 
   override def off(): Unit = {
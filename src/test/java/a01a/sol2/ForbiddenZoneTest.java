@@ -0,0 +1,49 @@
+package a01a.sol2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ForbiddenZoneTest {
+
+    @Test
+    @DisplayName("The zone holds the neighbourhoods of the marks, also after they move")
+    void testSameAsNeighbours() {
+        Random random = new Random(0);
+        // Sizes around the multiples of 64 bits, for rows spanning words and shifts by a whole word
+        for (int size : new int[]{1, 2, 3, 7, 10, 61, 62, 63, 64, 65, 100}) {
+            ForbiddenZone zone = new ForbiddenZone(size);
+            List<Position> marks = new ArrayList<>();
+            for (int step = 0; step < 40; step++) {
+                if (random.nextInt(4) == 0) {
+                    zone.shift();
+                    marks.replaceAll(p -> new Position(p.x() + 1, p.y() - 1));
+                } else {
+                    Position mark = new Position(random.nextInt(size), random.nextInt(size));
+                    zone.add(mark.x(), mark.y());
+                    marks.add(mark);
+                }
+                for (int x = -2; x <= size + 1; x++) {
+                    for (int y = -2; y <= size + 1; y++) {
+                        int cx = x;
+                        int cy = y;
+                        boolean expected = marks.stream()
+                                .anyMatch(p -> Math.abs(p.x() - cx) <= 1 && Math.abs(p.y() - cy) <= 1);
+                        // Beyond the padding nothing is kept, as no hit there can be next to a mark on the board
+                        boolean inPadding = x >= -1 && y >= -1 && x <= size && y <= size;
+                        assertEquals(expected && inPadding, zone.contains(x, y),
+                                "size " + size + ", step " + step + ", cell " + new Position(x, y));
+                    }
+                }
+            }
+            zone.clear();
+            assertFalse(zone.contains(0, 0));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ForbiddenZone(3).add(3, 0));
+    }
+}
@@ -77,9 +77,11 @@ public class GUITest {
         verifyNoInteractions(this.gui.getLogic());
 
         this.gui.handleButtonClick(markPlaced);
-        verify(this.gui.getLogic(), times(1)).getMark(new Position(4, 4));
+        verify(this.gui.getLogic(), times(1)).getMark(new Position(9, 0));
         this.gui.handleButtonClick(neighborHit);
-        verify(this.gui.getLogic(), times(2)).getMark(new Position(4, 4));
+        verify(this.gui.getLogic(), times(2)).getMark(new Position(9, 0));
+        // only the cells changed by a hit are repainted
+        verify(this.gui.getLogic(), never()).getMark(new Position(4, 4));
 
         verify(this.gui.getLogic(), times(2)).isOver();
         assertTrue(this.gui.getLogic().isOver());
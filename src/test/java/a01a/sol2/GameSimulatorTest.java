@@ -0,0 +1,48 @@
+package a01a.sol2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSimulatorTest {
+
+    @Test
+    @DisplayName("Check a known game is replayed correctly")
+    void testKnownGame() {
+        // places (9,9), then (9,8) is a neighbour and makes the marks leave the board
+        int[][] games = {{99, 98, 0, 0}};
+        var report = new GameSimulator(10, LogicImpl::new).run(games);
+
+        assertEquals(1, report.games());
+        assertEquals(2, report.clicks());
+        assertEquals(1, report.over());
+        assertArrayEquals(new long[]{0, 1}, report.marks());
+    }
+
+    @Test
+    @DisplayName("Parallel replay gives the same outcomes with any pool and any Logic")
+    void testSameOutcomes() {
+        int[][] games = GameSimulator.randomGames(8, 2000, 15, 42);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        GameSimulator.SimulationReport sequential;
+        GameSimulator.SimulationReport parallel;
+        try {
+            sequential = new GameSimulator(8, LogicMode.STANDARD::create, single).run(games);
+            parallel = new GameSimulator(8, LogicMode.OFFSET::create, four).run(games);
+        } finally {
+            single.shutdown();
+            four.shutdown();
+        }
+
+        assertEquals(2000, parallel.games());
+        assertEquals(sequential.clicks(), parallel.clicks());
+        assertEquals(sequential.over(), parallel.over());
+        assertArrayEquals(sequential.marks(), parallel.marks());
+        assertEquals(2000, Arrays.stream(parallel.marks()).sum());
+    }
+}
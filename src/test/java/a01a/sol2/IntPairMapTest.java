@@ -0,0 +1,74 @@
+package a01a.sol2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntPairMapTest {
+
+    @Test
+    @DisplayName("Put, get and remove single entries")
+    void testBasicOperations() {
+        IntPairMap<String> map = new IntPairMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.put(1, 2, "a"));
+        assertNull(map.put(2, 1, "b"));
+        assertNull(map.put(-1, Integer.MIN_VALUE, "c"));
+        assertEquals("a", map.put(1, 2, "d"));
+        assertEquals(3, map.size());
+
+        assertEquals("d", map.get(1, 2));
+        assertEquals("b", map.get(2, 1));
+        assertEquals("c", map.get(-1, Integer.MIN_VALUE));
+        assertNull(map.get(1, 1));
+        assertEquals("e", map.getOrDefault(1, 1, "e"));
+
+        assertEquals("d", map.remove(1, 2));
+        assertNull(map.remove(1, 2));
+        assertFalse(map.containsKey(1, 2));
+        assertEquals(2, map.size());
+        assertThrows(NullPointerException.class, () -> map.put(0, 0, null));
+    }
+
+    @Test
+    @DisplayName("Behave like a HashMap of Pairs under random operations")
+    void testSameAsHashMap() {
+        Random random = new Random(0);
+        IntPairMap<Integer> map = new IntPairMap<>();
+        Map<Pair<Integer, Integer>, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            // A small range of keys, so that puts and removes hit the same keys and collide often
+            int x = random.nextInt(64) - 32;
+            int y = random.nextInt(64) - 32;
+            Pair<Integer, Integer> key = new Pair<>(x, y);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(x, y));
+            } else {
+                assertEquals(expected.put(key, i), map.put(x, y, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        Map<Pair<Integer, Integer>, Integer> entries = new HashMap<>();
+        map.forEach((x, y, value) -> entries.put(new Pair<>(x, y), value));
+        assertEquals(expected, entries);
+    }
+
+    @Test
+    @DisplayName("Pair variants agree with Pair on hashCode")
+    void testPairVariants() {
+        assertEquals(new Pair<>(3, -7).hashCode(), new IntIntPair(3, -7).hashCode());
+        assertEquals(new Pair<>(3L, "a").hashCode(), new LongObjPair<>(3L, "a").hashCode());
+        assertEquals(new Pair<>("a", null).hashCode(), new HashedPair<>("a", null).hashCode());
+
+        assertEquals(new IntIntPair(3, -7), new IntIntPair(3, -7));
+        assertNotEquals(new IntIntPair(3, -7), new IntIntPair(-7, 3));
+        assertEquals(new HashedPair<>("a", 1), new HashedPair<>("a", 1));
+        assertNotEquals(new HashedPair<>("a", 1), new Pair<>("a", 1));
+        assertEquals(new Pair<>(3, -7), new IntIntPair(3, -7).toPair());
+    }
+}
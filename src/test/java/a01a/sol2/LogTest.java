@@ -0,0 +1,116 @@
+package a01a.sol2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogTest {
+
+    private final List<LogRecord> published = new CopyOnWriteArrayList<>();
+    private final Handler collector = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            published.add(record);
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    };
+    private Logger logger;
+    // The logger Log used before the test, given back afterwards
+    private Logger previous;
+    private AsyncHandler handler;
+
+    @BeforeEach
+    void setUpLog() {
+        this.logger = Logger.getLogger(LogTest.class.getName());
+        this.logger.setUseParentHandlers(false);
+        this.handler = new AsyncHandler(this.collector, 16);
+        this.logger.addHandler(this.handler);
+        this.previous = Log.getLOGGER();
+        Log.setLOGGER(this.logger);
+    }
+
+    @AfterEach
+    void tearDownLog() {
+        this.logger.removeHandler(this.handler);
+        this.logger.setLevel(null);
+        Log.setLOGGER(this.previous);
+    }
+
+    @Test
+    @DisplayName("Messages are not built if the level is disabled")
+    void testDisabledLevel() {
+        this.logger.setLevel(Level.OFF);
+        assertFalse(Log.isLoggable(Level.INFO));
+        Log.info(() -> fail("message built while logging is off"));
+        this.handler.close();
+        assertTrue(this.published.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Records are published by the background writer, with the right caller")
+    void testAsyncPublishing() {
+        this.logger.setLevel(Level.INFO);
+        Log.info(() -> "first");
+        Log.info(() -> "second");
+        this.handler.close();
+        assertEquals(List.of("first", "second"), this.published.stream().map(LogRecord::getMessage).toList());
+        assertEquals(LogTest.class.getName(), this.published.get(0).getSourceClassName());
+    }
+
+    @Test
+    @DisplayName("Closing waits for the writer, so a slow delegate still gets every record in order before closing")
+    void testCloseWithSlowDelegate() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        Handler slow = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                // the first record takes long enough for close() to come while the writer publishes it
+                long end = System.nanoTime() + (record.getMessage().equals("0") ? 50_000_000 : 100_000);
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+                events.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {}
+
+            @Override
+            public void close() {
+                events.add("closed");
+            }
+        };
+        var async = new AsyncHandler(slow, 16);
+        this.logger.removeHandler(this.handler);
+        this.logger.addHandler(async);
+        this.handler = async;
+        this.logger.setLevel(Level.INFO);
+        for (int i = 0; i < 16; i++) {
+            int message = i;
+            Log.info(() -> String.valueOf(message));
+        }
+        async.close();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 16 - async.getDropped(); i++) {
+            expected.add(String.valueOf(i));
+        }
+        expected.add("closed");
+        assertEquals(expected, events);
+    }
+}
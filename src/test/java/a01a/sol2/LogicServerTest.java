@@ -0,0 +1,147 @@
+package a01a.sol2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogicServerTest {
+
+    private SessionRegistry registry;
+    private LogicServer server;
+    private Socket socket;
+    private InputStream in;
+    private OutputStream out;
+
+    @BeforeEach
+    void setUpServer() throws IOException {
+        Logger.getLogger(Log.class.getPackageName()).setLevel(Level.OFF);
+        this.registry = new SessionRegistry(4);
+        this.server = LogicServer.start(this.registry, 0);
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), this.server.port());
+        this.in = new BufferedInputStream(this.socket.getInputStream());
+        this.out = this.socket.getOutputStream();
+    }
+
+    @AfterEach
+    void tearDownServer() throws IOException {
+        this.socket.close();
+        this.server.close();
+        this.registry.close();
+        Logger.getLogger(Log.class.getPackageName()).setLevel(null);
+    }
+
+    private void send(String method, String target, String body) throws IOException {
+        this.out.write((method + " " + target + " HTTP/1.1\r\nContent-Length: " + body.length() + "\r\n\r\n" + body)
+                .getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private String receive() throws IOException {
+        String status = LogicServer.readLine(this.in);
+        int length = LogicServer.readHeaders(this.in, new boolean[1]);
+        String body = new String(LogicServer.readBody(this.in, length), StandardCharsets.UTF_8);
+        return status.substring("HTTP/1.1 ".length(), "HTTP/1.1 ".length() + 3) + " " + body;
+    }
+
+    @Test
+    @DisplayName("Play a game through the endpoints")
+    void testEndpoints() throws IOException {
+        send("POST", "/sessions?size=3", "");
+        String id = receive().substring(4);
+        send("POST", "/sessions/" + id + "/hit?x=0&y=2", "");
+        assertEquals("200 1", receive());
+        send("GET", "/sessions/" + id + "/mark?x=0&y=2", "");
+        assertEquals("200 1", receive());
+        send("GET", "/sessions/" + id + "/board", "");
+        assertEquals("200 0 0 0\n0 0 0\n1 0 0\n", receive());
+        // (1,1) is next to (0,2), so the marks move and (2,2) leaves the board
+        send("POST", "/sessions/" + id + "/hits", "2 2\n1 1\n");
+        assertEquals("200 2\n0\n", receive());
+        send("GET", "/sessions/" + id + "/over", "");
+        assertEquals("200 true", receive());
+
+        send("GET", "/sessions/" + id + "/mark?x=0", "");
+        assertTrue(receive().startsWith("400"));
+        send("POST", "/sessions?size=" + (SessionRegistry.MAX_SIZE + 1), "");
+        assertTrue(receive().startsWith("400"));
+        send("POST", "/sessions?size=46341", "");
+        assertTrue(receive().startsWith("400"));
+        send("GET", "/sessions/12345/over", "");
+        assertTrue(receive().startsWith("404"));
+        send("DELETE", "/sessions/" + id, "");
+        assertEquals("200 ", receive());
+        send("GET", "/sessions/" + id + "/over", "");
+        assertTrue(receive().startsWith("404"));
+    }
+
+    @Test
+    @DisplayName("Pipelined requests are answered in order")
+    void testPipelining() throws IOException {
+        send("POST", "/sessions?size=10", "");
+        String id = receive().substring(4);
+        for (int i = 0; i < 5; i++) {
+            send("POST", "/sessions/" + id + "/hit?x=" + 2 * i + "&y=0", "");
+        }
+        send("GET", "/sessions/" + id + "/mark?x=8&y=0", "");
+        this.out.flush();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("200 " + (i + 1), receive());
+        }
+        assertEquals("200 5", receive());
+    }
+
+    @Test
+    @DisplayName("The load generator reports every request")
+    void testLoadGenerator() throws InterruptedException {
+        var report = new LoadGenerator(this.server.port(), 4, 8, 500, 10).run();
+        assertEquals(2000, report.requests());
+        assertEquals(0, report.errors());
+        assertTrue(report.p50() <= report.p99() && report.p99() <= report.max());
+        // every connection closes the session it played
+        assertEquals(0, this.registry.sessions());
+    }
+
+    @Test
+    @DisplayName("An unexpected failure is answered with a 500, and the connection kept")
+    void testInternalError() throws IOException {
+        var failing = new SessionRegistry(1) {
+            @Override
+            public boolean isOver(long id) {
+                throw new IllegalStateException("Broken session");
+            }
+        };
+        try (failing; var failingServer = LogicServer.start(failing, 0);
+             var client = new Socket(InetAddress.getLoopbackAddress(), failingServer.port())) {
+            this.in = new BufferedInputStream(client.getInputStream());
+            this.out = client.getOutputStream();
+            send("POST", "/sessions?size=3", "");
+            String id = receive().substring(4);
+            send("GET", "/sessions/" + id + "/over", "");
+            assertEquals("500 Internal error", receive());
+            send("GET", "/sessions/" + id + "/mark?x=0&y=0", "");
+            assertEquals("200 0", receive());
+        }
+    }
+
+    @Test
+    @DisplayName("Closing the server closes the connections it serves")
+    void testCloseConnections() throws IOException {
+        send("POST", "/sessions?size=3", "");
+        receive();
+        this.server.close();
+        this.socket.setSoTimeout(5_000);
+        assertEquals(-1, this.in.read());
+    }
+}
@@ -0,0 +1,119 @@
+package a01a.sol2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogicSnapshotsTest {
+
+    private static void assertSameGame(Logic expected, Logic actual, int size) {
+        assertEquals(expected.isOver(), actual.isOver());
+        for (int x = -1; x <= size; x++) {
+            for (int y = -1; y <= size; y++) {
+                assertEquals(expected.getMark(new Position(x, y)), actual.getMark(new Position(x, y)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A loaded snapshot plays like the saved game")
+    void testFullSnapshot() {
+        LogicImpl logic = new LogicImpl(10);
+        logic.hit(new Position(2, 2));
+        logic.hit(new Position(7, 4));
+        byte[] snapshot = LogicSnapshots.save(logic);
+
+        LogicImpl loaded = LogicSnapshots.load(snapshot);
+        assertSameGame(logic, loaded, 10);
+        assertEquals(Optional.of(3), loaded.hit(new Position(5, 5)));
+        assertEquals(Optional.empty(), loaded.hit(new Position(5, 6)));
+        assertEquals(Optional.of(1), loaded.getMark(new Position(3, 1)));
+        assertThrows(IllegalArgumentException.class, () -> LogicSnapshots.load(new byte[]{'F', 10}));
+    }
+
+    @Test
+    @DisplayName("Increments and compaction rebuild the game on random games")
+    void testIncrements() {
+        Random random = new Random(0);
+        for (int game = 0; game < 100; game++) {
+            int size = 2 + random.nextInt(10);
+            LogicImpl logic = new LogicImpl(size);
+            byte[] full = LogicSnapshots.save(logic);
+            byte[] previous = full;
+            List<byte[]> increments = new ArrayList<>();
+            for (int hit = 0; hit < 20; hit++) {
+                logic.hit(new Position(random.nextInt(size), random.nextInt(size)));
+                if (random.nextBoolean()) {
+                    previous = LogicSnapshots.saveSince(logic, previous);
+                    increments.add(previous);
+                }
+            }
+            increments.add(LogicSnapshots.saveSince(logic, previous));
+
+            assertSameGame(logic, LogicSnapshots.load(full, increments), size);
+            byte[] compacted = LogicSnapshots.compact(full, increments);
+            assertArrayEquals(LogicSnapshots.save(logic), compacted);
+            assertSameGame(logic, LogicSnapshots.load(compacted), size);
+        }
+    }
+
+    @Test
+    @DisplayName("Increments must follow each other")
+    void testIncrementsOrder() {
+        LogicImpl logic = new LogicImpl(10);
+        byte[] full = LogicSnapshots.save(logic);
+        logic.hit(new Position(1, 1));
+        byte[] first = LogicSnapshots.saveSince(logic, full);
+        logic.hit(new Position(5, 5));
+        byte[] second = LogicSnapshots.saveSince(logic, first);
+
+        assertEquals(Optional.of(2), LogicSnapshots.load(full, List.of(first, second)).getMark(new Position(5, 5)));
+        assertThrows(IllegalArgumentException.class, () -> LogicSnapshots.load(full, List.of(second)));
+        assertThrows(IllegalArgumentException.class, () -> LogicSnapshots.load(first));
+    }
+
+    @Test
+    @DisplayName("Malformed counts are rejected with an IllegalArgumentException")
+    void testMalformedCounts() {
+        LogicImpl logic = new LogicImpl(10);
+        logic.hit(new Position(1, 5));
+        logic.hit(new Position(5, 5));
+        byte[] full = LogicSnapshots.save(logic);
+        // the marks start moving
+        logic.hit(new Position(2, 6));
+        byte[] increment = LogicSnapshots.saveSince(logic, full);
+        int shifts = logic.shifts();
+        assertTrue(shifts > 0);
+        assertEquals(shifts, LogicSnapshots.load(full, List.of(increment)).shifts());
+
+        // 'I', previous marks, marks, shifts, moving: the shifts go back
+        byte[] backwards = {'I', 2, 2, (byte) (shifts - 1), 1};
+        assertThrows(IllegalArgumentException.class, () -> LogicSnapshots.load(full, List.of(increment, backwards)));
+        // a game that stops moving
+        byte[] stopped = {'I', 2, 2, (byte) shifts, 0};
+        assertThrows(IllegalArgumentException.class, () -> LogicSnapshots.load(full, List.of(increment, stopped)));
+        // negative counts, as varints of five bytes
+        byte[] negative = {-1, -1, -1, -1, 0x0F};
+        assertThrows(IllegalArgumentException.class, () -> LogicSnapshots.load(concat(new byte[]{'F', 10}, negative, new byte[]{0, 0})));
+        assertThrows(IllegalArgumentException.class, () -> LogicSnapshots.load(concat(new byte[]{'F'}, negative, new byte[]{0, 0, 0})));
+        assertThrows(IllegalArgumentException.class, () -> LogicSnapshots.load(full, List.of(concat(new byte[]{'I', 2}, negative, new byte[]{2, 1}))));
+        // more marks than the snapshot holds, or a board too large
+        assertThrows(IllegalArgumentException.class, () -> LogicSnapshots.load(new byte[]{'F', 10, -1, -1, -1, -1, 0x07, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> LogicSnapshots.load(new byte[]{'F', -1, -1, 0x03, 0, 0, 0}));
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            bytes.writeBytes(part);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,6 +40,19 @@ public class LogicTest {
         assertTrue(logic.isOver());
     }
 
+    @Test
+    @DisplayName("Check whether the application ends when a mark leaves the top of the board")
+    void testApplicationEndsOnTop() {
+        logic.hit(new Position(0, 1));
+        logic.hit(new Position(5, 5));
+        assertFalse(logic.isOver());
+
+        logic.hit(new Position(0, 0));
+        assertFalse(logic.isOver());
+        logic.hit(new Position(0, 0));
+        assertTrue(logic.isOver());
+    }
+
     @Test
     @DisplayName("Check remaining coverage actions")
     void testCoverageCompletely() {
@@ -56,4 +70,68 @@ public class LogicTest {
         assertEquals(Optional.of(4), logic.getMark(new Position(6, 2)));
     }
 
+    @Test
+    @DisplayName("Check the cells changed by each hit")
+    void testChanges() {
+        assertEquals(Set.of(), logic.changes());
+        logic.hit(new Position(4, 4));
+        assertEquals(Set.of(new Position(4, 4)), logic.changes());
+        logic.hit(new Position(6, 6));
+        assertEquals(Set.of(new Position(6, 6)), logic.changes());
+
+        logic.hit(new Position(5, 5));
+        assertEquals(Set.of(new Position(4, 4), new Position(5, 3), new Position(6, 6), new Position(7, 5)),
+                logic.changes());
+        // asked again before the next hit, the same set is given back
+        assertSame(logic.changes(), logic.changes());
+    }
+
+    @Test
+    @DisplayName("Check the primitive hit and getMark agree with the Position ones")
+    void testPrimitiveHitAndGetMark() {
+        assertEquals(0, logic.getMark(4, 4));
+        assertEquals(1, logic.hit(4, 4));
+        assertEquals(Optional.of(1), logic.getMark(new Position(4, 4)));
+        assertEquals(Optional.of(2), logic.hit(new Position(7, 7)));
+
+        assertEquals(0, logic.hit(5, 5));
+        assertEquals(1, logic.getMark(5, 3));
+        assertEquals(2, logic.getMark(8, 6));
+        assertEquals(0, logic.getMark(4, 4));
+    }
+
+    @Test
+    @DisplayName("Check the snapshot holds the marks of the whole board")
+    void testSnapshot() {
+        logic.hit(new Position(4, 4));
+        logic.hit(new Position(0, 9));
+        logic.hit(new Position(5, 5));
+        int[] board = new int[100];
+        logic.snapshot(board);
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                assertEquals(logic.getMark(x, y), board[x * 10 + y]);
+            }
+        }
+        assertEquals(1, board[5 * 10 + 3]);
+        assertEquals(2, board[1 * 10 + 8]);
+        assertThrows(IllegalArgumentException.class, () -> logic.snapshot(new int[99]));
+    }
+
+    @Test
+    @DisplayName("Check marks are indexed correctly on a large board")
+    void testLargeBoard() {
+        Logic large = new LogicImpl(1000);
+        assertEquals(Optional.of(1), large.hit(new Position(0, 999)));
+        assertEquals(Optional.of(2), large.hit(new Position(500, 500)));
+        assertEquals(Optional.of(3), large.hit(new Position(999, 0)));
+        assertEquals(Optional.empty(), large.getMark(new Position(999, 999)));
+
+        assertEquals(Optional.empty(), large.hit(new Position(501, 499)));
+        assertEquals(Optional.of(1), large.getMark(new Position(1, 998)));
+        assertEquals(Optional.of(2), large.getMark(new Position(501, 499)));
+        assertEquals(Optional.empty(), large.getMark(new Position(500, 500)));
+        assertTrue(large.isOver());
+    }
+
 }
@@ -0,0 +1,58 @@
+package a01a.sol2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffsetLogicTest {
+
+    private static final int GAMES = 200;
+    private static final int HITS = 30;
+
+    @Test
+    @DisplayName("Offset mode behaves like the standard Logic on random games")
+    void testSameResultsAsLogicImpl() {
+        Random random = new Random(0);
+        for (int game = 0; game < GAMES; game++) {
+            int size = 1 + random.nextInt(12);
+            Logic expected = LogicMode.STANDARD.create(size);
+            Logic actual = LogicMode.OFFSET.create(size);
+            int[] expectedBoard = new int[size * size];
+            int[] actualBoard = new int[size * size];
+            for (int i = 0; i < HITS; i++) {
+                Position position = new Position(random.nextInt(size), random.nextInt(size));
+                String context = "game " + game + ", hit " + position;
+                assertEquals(expected.hit(position), actual.hit(position), context);
+                assertEquals(expected.isOver(), actual.isOver(), context);
+                assertEquals(expected.changes(), actual.changes(), context);
+                expected.snapshot(expectedBoard);
+                actual.snapshot(actualBoard);
+                assertArrayEquals(expectedBoard, actualBoard, context);
+                // looking one cell past the board also covers the marks that just left it
+                for (int x = -1; x <= size; x++) {
+                    for (int y = -1; y <= size; y++) {
+                        Position cell = new Position(x, y);
+                        assertEquals(expected.getMark(cell), actual.getMark(cell), context + ", cell " + cell);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Check marks shift without being moved")
+    void testShift() {
+        Logic logic = LogicMode.OFFSET.create(10);
+        logic.hit(new Position(4, 4));
+        logic.hit(new Position(5, 5));
+        assertEquals(Optional.empty(), logic.getMark(new Position(4, 4)));
+        assertEquals(Optional.of(1), logic.getMark(new Position(5, 3)));
+        logic.hit(new Position(0, 0));
+        assertEquals(Optional.of(1), logic.getMark(new Position(6, 2)));
+        assertFalse(logic.isOver());
+    }
+}
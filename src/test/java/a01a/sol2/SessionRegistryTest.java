@@ -0,0 +1,64 @@
+package a01a.sol2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionRegistryTest {
+
+    @Test
+    @DisplayName("Sessions are independent games")
+    void testSessions() {
+        try (var registry = new SessionRegistry(4)) {
+            long first = registry.open(10);
+            long second = registry.open(10, LogicMode.OFFSET);
+            assertEquals(2, registry.sessions());
+
+            assertEquals(1, registry.hit(first, 4, 4).join().intValue());
+            assertEquals(0, registry.getMark(second, 4, 4));
+            assertEquals(1, registry.hit(second, 9, 9).join().intValue());
+            assertEquals(0, registry.hit(second, 9, 8).join().intValue());
+            assertTrue(registry.isOver(second));
+            assertFalse(registry.isOver(first));
+
+            assertTrue(registry.close(second));
+            assertFalse(registry.contains(second));
+            assertThrows(NoSuchElementException.class, () -> registry.isOver(second));
+            // a hit reports a missing session through its future, as any other failure
+            CompletableFuture<Integer> missing = registry.hit(second, 0, 0);
+            var thrown = assertThrows(CompletionException.class, missing::join);
+            assertTrue(thrown.getCause() instanceof NoSuchElementException, thrown.toString());
+            assertEquals(1, registry.sessions());
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent hits on many sessions give the same games as sequential ones")
+    void testConcurrentHits() {
+        Logger.getLogger(Log.class.getPackageName()).setLevel(Level.OFF);
+        try (var registry = new SessionRegistry()) {
+            long[] ids = IntStream.range(0, 1000).mapToLong(i -> registry.open(10)).toArray();
+            // Every session gets two far apart marks, each waited for, then the hits of all sessions are joined
+            CompletableFuture<?>[] games = new CompletableFuture<?>[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                long id = ids[i];
+                games[i] = registry.hit(id, 2, 2).thenCompose(mark -> registry.hit(id, 6, 6));
+            }
+            CompletableFuture.allOf(games).join();
+            for (long id : ids) {
+                assertEquals(1, registry.getMark(id, 2, 2));
+                assertEquals(2, registry.withLogic(id, logic -> logic.getMark(6, 6)).intValue());
+            }
+        } finally {
+            Logger.getLogger(Log.class.getPackageName()).setLevel(null);
+        }
+    }
+}
@@ -2,7 +2,13 @@ package coverage;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class AdderTest {
 
@@ -13,4 +19,66 @@ class AdderTest {
         assertEquals(-1, adder.add(-1, 20)); // test needed for full coverage
         assertEquals(-1, adder.add(20, -1)); // test needed for full coverage
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAddAll() {
+        var adder = new Adder();
+        int[] edges = {0, 1, -1, 2, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1};
+        Random random = new Random(0);
+        // An odd length, so that the tail after the last whole vector is also checked
+        int[] a = new int[1001];
+        int[] b = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i < edges.length * edges.length ? edges[i / edges.length] : random.nextInt();
+            b[i] = i < edges.length * edges.length ? edges[i % edges.length] : random.nextInt();
+        }
+        int[] expected = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            expected[i] = adder.add(a[i], b[i]);
+        }
+        int[] out = new int[a.length];
+        adder.addAll(a, b, out);
+        assertArrayEquals(expected, out);
+        Arrays.fill(out, 0);
+        adder.addAllBranchFree(a, b, out);
+        assertArrayEquals(expected, out);
+        assertThrows(IllegalArgumentException.class, () -> adder.addAll(a, b, new int[1]));
+
+        // The vector path needs the jdk.incubator.vector module, which the sbt build adds to the test JVM
+        assumeTrue(Adder.isVectorized(), "jdk.incubator.vector is not loaded, the vector path is not checked");
+        Arrays.fill(out, 0);
+        VectorAdder.addAll(a, b, out);
+        assertArrayEquals(expected, out);
+    }
+
+    @Test
+    void testOverflowModes() {
+        var adder = new Adder();
+        assertEquals(30, adder.addSaturating(10, 20));
+        assertEquals(Integer.MAX_VALUE, adder.addSaturating(Integer.MAX_VALUE, 1));
+        assertEquals(-1, adder.addSaturating(0, 1));
+
+        assertEquals(30, adder.addExact(10, 20));
+        assertThrows(ArithmeticException.class, () -> adder.addExact(Integer.MAX_VALUE, 1));
+        assertEquals(-1, adder.addExact(1, -1));
+
+        assertEquals(2L * Integer.MAX_VALUE, adder.addWide(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertEquals(-1L, adder.addWide(-1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testSum() {
+        // Large enough to be split in several stripes, and to overflow an int many times
+        int[] values = new int[1_000_003];
+        Arrays.fill(values, Integer.MAX_VALUE);
+        values[0] = Integer.MIN_VALUE;
+        long expected = (values.length - 1) * (long) Integer.MAX_VALUE + Integer.MIN_VALUE;
+        assertEquals(expected, Adder.sum(values));
+        assertEquals(expected, Adder.sum(Arrays.stream(values)));
+        assertEquals(0L, Adder.sum(new int[0]));
+
+        LongAdder total = new LongAdder();
+        IntStream.range(0, 4).parallel().forEach(i -> Adder.sumInto(values, total));
+        assertEquals(4 * expected, total.sum());
+    }
+}
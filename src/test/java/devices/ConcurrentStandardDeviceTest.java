@@ -0,0 +1,228 @@
+package devices;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Stress tests in the style of jcstress: small groups of operations are run concurrently many times,
+ * and each observed history must be explainable by some sequential order of the same operations.
+ */
+public class ConcurrentStandardDeviceTest {
+
+    private static final int THREADS = 3;
+    private static final int OPERATIONS = 3;
+    private static final int ROUNDS = 2000;
+
+    private enum Operation { ON, OFF, RESET, IS_ON }
+
+    // An operation as run by a thread: what it returned and when it started and ended
+    private record Event(Operation operation, boolean result, long start, long end) {}
+
+    private static final FailingPolicy NEVER_FAILING = new FailingPolicy() {
+        @Override
+        public boolean attemptOn() {
+            return true;
+        }
+
+        @Override
+        public void reset() {}
+
+        @Override
+        public String policyName() {
+            return "never";
+        }
+    };
+
+    @Test
+    @DisplayName("Device must specify a strategy")
+    void testNonNullStrategy() {
+        assertThrows(NullPointerException.class, () -> new ConcurrentStandardDevice(null));
+    }
+
+    @Test
+    @DisplayName("Concurrent histories are linearizable")
+    void testLinearizable() throws Exception {
+        Random random = new Random(0);
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        for (int round = 0; round < ROUNDS; round++) {
+            Device device = new ConcurrentStandardDevice(NEVER_FAILING);
+            boolean initiallyOn = random.nextBoolean();
+            if (initiallyOn) {
+                device.on();
+            }
+            List<List<Event>> histories = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                List<Operation> operations = new ArrayList<>();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    operations.add(Operation.values()[random.nextInt(Operation.values().length)]);
+                }
+                List<Event> history = new ArrayList<>();
+                histories.add(history);
+                threads.add(new Thread(() -> run(device, operations, history, barrier)));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertTrue(linearizable(histories, new int[THREADS], initiallyOn, device.isOn()),
+                    "round " + round + ": " + histories + ", final on=" + device.isOn());
+        }
+    }
+
+    private static void run(Device device, List<Operation> operations, List<Event> history, CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        for (Operation operation : operations) {
+            long start = System.nanoTime();
+            boolean result = switch (operation) {
+                case ON -> { device.on(); yield false; }
+                case OFF -> { device.off(); yield false; }
+                case RESET -> { device.reset(); yield false; }
+                case IS_ON -> device.isOn();
+            };
+            history.add(new Event(operation, result, start, System.nanoTime()));
+        }
+    }
+
+    // Tries every order of the events respecting real time, replaying them on the sequential specification
+    private static boolean linearizable(List<List<Event>> histories, int[] done, boolean on, boolean finallyOn) {
+        boolean remaining = false;
+        for (int t = 0; t < histories.size(); t++) {
+            if (done[t] == histories.get(t).size()) {
+                continue;
+            }
+            remaining = true;
+            Event event = histories.get(t).get(done[t]);
+            if (!minimal(histories, done, event)) {
+                continue;
+            }
+            boolean next;
+            switch (event.operation()) {
+                case ON -> next = true;
+                case OFF, RESET -> next = false;
+                default -> {
+                    if (event.result() != on) {
+                        continue;
+                    }
+                    next = on;
+                }
+            }
+            done[t]++;
+            boolean found = linearizable(histories, done, next, finallyOn);
+            done[t]--;
+            if (found) {
+                return true;
+            }
+        }
+        return !remaining && on == finallyOn;
+    }
+
+    // An event can come next only if no other pending event ended before it started
+    private static boolean minimal(List<List<Event>> histories, int[] done, Event event) {
+        for (int t = 0; t < histories.size(); t++) {
+            if (done[t] < histories.get(t).size() && histories.get(t).get(done[t]).end() < event.start()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    @DisplayName("Switching on throws exactly when the policy refuses")
+    void testFailuresUnderContention() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        FailingPolicy everyOtherFailing = new FailingPolicy() {
+            @Override
+            public boolean attemptOn() {
+                boolean success = attempts.incrementAndGet() % 2 == 0;
+                if (!success) {
+                    refused.incrementAndGet();
+                }
+                return success;
+            }
+
+            @Override
+            public void reset() {}
+
+            @Override
+            public String policyName() {
+                return "every other";
+            }
+        };
+        Device device = new ConcurrentStandardDevice(everyOtherFailing);
+        AtomicInteger thrown = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    try {
+                        device.on();
+                    } catch (IllegalStateException e) {
+                        thrown.incrementAndGet();
+                    }
+                    device.off();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80_000, attempts.get());
+        assertEquals(refused.get(), thrown.get());
+        assertFalse(device.isOn());
+    }
+
+    @Test
+    @DisplayName("A shared RandomFailing fails for good, for every thread, once it failed")
+    void testSharedRandomFailing() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            Device device = new ConcurrentStandardDevice(new RandomFailing());
+            CyclicBarrier barrier = new CyclicBarrier(THREADS);
+            List<List<Event>> histories = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                List<Event> history = new ArrayList<>();
+                histories.add(history);
+                threads.add(new Thread(() -> {
+                    try {
+                        barrier.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    for (int i = 0; i < 20; i++) {
+                        long start = System.nanoTime();
+                        boolean on = device.tryOn() == OnResult.SWITCHED_ON;
+                        history.add(new Event(Operation.ON, on, start, System.nanoTime()));
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long firstFailure = histories.stream().flatMap(List::stream).filter(e -> !e.result())
+                    .mapToLong(Event::end).min().orElse(Long.MAX_VALUE);
+            int current = round;
+            histories.stream().flatMap(List::stream).filter(e -> e.result() && e.start() > firstFailure)
+                    .findAny().ifPresent(e -> fail("round " + current + ": switched on after a failure: " + e));
+            if (firstFailure != Long.MAX_VALUE) {
+                assertEquals(OnResult.FAILED, device.tryOn());
+                device.reset();
+            }
+        }
+    }
+}
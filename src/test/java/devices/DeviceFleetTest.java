@@ -0,0 +1,57 @@
+package devices;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DeviceFleetTest {
+
+    private static final int SIZE = 10_000;
+
+    @Test
+    @DisplayName("Fleet must specify a strategy")
+    void testNonNullStrategy() {
+        assertThrows(NullPointerException.class, () -> new DeviceFleet(SIZE, null));
+        assertThrows(NullPointerException.class, () -> new DeviceFleet(3, () -> null));
+    }
+
+    @Test
+    @DisplayName("Bulk operations report the failing devices")
+    void testFailuresAreAggregated() {
+        FailingPolicy failing = mock(FailingPolicy.class);
+        FailingPolicy working = mock(FailingPolicy.class);
+        when(failing.attemptOn()).thenReturn(false);
+        when(working.attemptOn()).thenReturn(true);
+        var fleet = new DeviceFleet(List.of(
+                new StandardDevice(working), new StandardDevice(failing), new StandardDevice(working)));
+
+        var result = fleet.onAll();
+        assertEquals(3, result.devices());
+        assertEquals(2, result.succeeded());
+        assertEquals(1, result.failed());
+        assertTrue(result.failures().get(1));
+        assertEquals(2, fleet.countOn());
+
+        assertEquals(0, fleet.offAll().failed());
+        assertEquals(0, fleet.countOn());
+    }
+
+    @Test
+    @DisplayName("Bulk operations reach every device of a large fleet")
+    void testLargeFleet() {
+        var fleet = new DeviceFleet(SIZE, RandomFailing::new);
+        var result = fleet.onAll();
+        assertEquals(SIZE, result.devices());
+        assertEquals(result.succeeded(), fleet.countOn());
+        var failures = result.failures();
+        IntStream.range(0, SIZE).forEach(i -> assertEquals(!failures.get(i), fleet.get(i).isOn()));
+
+        assertEquals(SIZE, fleet.resetAll().succeeded());
+        assertEquals(0, fleet.countOn());
+    }
+}
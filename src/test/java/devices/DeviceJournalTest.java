@@ -0,0 +1,160 @@
+package devices;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeviceJournalTest {
+
+    private Path file;
+
+    @BeforeEach
+    void createFile() throws IOException {
+        this.file = Files.createTempFile("devices", ".journal");
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    private static FailingPolicy policy(boolean... outcomes) {
+        return new FailingPolicy() {
+            private int attempts = 0;
+
+            @Override
+            public boolean attemptOn() {
+                return outcomes[this.attempts++ % outcomes.length];
+            }
+
+            @Override
+            public void reset() {}
+
+            @Override
+            public String policyName() {
+                return "fixed";
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Transitions and policy outcomes are recorded in order")
+    void testRecording() throws IOException {
+        try (var journal = new DeviceJournal(this.file, true)) {
+            Device device = journal.journaled(7, new StandardDevice(journal.journaled(7, policy(true, false))));
+            device.on();
+            device.off();
+            assertThrows(IllegalStateException.class, device::on);
+            device.reset();
+        }
+        List<DeviceJournal.Entry> entries = new ArrayList<>();
+        DeviceJournal.replay(this.file, entries::add);
+
+        assertEquals(List.of(DeviceJournal.Event.ATTEMPT_ON, DeviceJournal.Event.ON, DeviceJournal.Event.OFF,
+                        DeviceJournal.Event.ATTEMPT_ON, DeviceJournal.Event.ON,
+                        DeviceJournal.Event.POLICY_RESET, DeviceJournal.Event.RESET),
+                entries.stream().map(DeviceJournal.Entry::event).toList());
+        assertEquals(List.of(true, true, true, false, false, true, true),
+                entries.stream().map(DeviceJournal.Entry::success).toList());
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L),
+                entries.stream().map(DeviceJournal.Entry::sequence).toList());
+        assertTrue(entries.stream().allMatch(e -> e.device() == 7));
+        assertEquals(7 * DeviceJournal.RECORD_SIZE, Files.size(this.file));
+    }
+
+    @Test
+    @DisplayName("The state of the devices is rebuilt from the journal")
+    void testRebuild() throws Exception {
+        int devices = 100;
+        List<Device> journaled = new ArrayList<>();
+        try (var journal = new DeviceJournal(this.file, false)) {
+            for (int i = 0; i < devices; i++) {
+                journaled.add(journal.journaled(i, new StandardDevice(policy(i % 3 != 0))));
+            }
+            // many threads record at once
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int first = t;
+                threads.add(new Thread(() -> {
+                    for (int i = first; i < devices; i += 4) {
+                        journaled.get(i).tryOn();
+                        if (i % 5 == 0) {
+                            journaled.get(i).off();
+                        }
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            journal.flush();
+            assertEquals(120 * DeviceJournal.RECORD_SIZE, Files.size(this.file));
+        }
+        var on = DeviceJournal.rebuild(this.file);
+        for (int i = 0; i < devices; i++) {
+            assertEquals(journaled.get(i).isOn(), on.get(i), "device " + i);
+        }
+
+        // a new journal on the same file appends after the existing records
+        try (var journal = new DeviceJournal(this.file, false)) {
+            journal.journaled(1, new StandardDevice(policy(true))).reset();
+        }
+        assertFalse(DeviceJournal.rebuild(this.file).get(1));
+        List<Long> sequences = new ArrayList<>();
+        DeviceJournal.replay(this.file, entry -> sequences.add(entry.sequence()));
+        assertEquals(120, sequences.get(sequences.size() - 1).longValue());
+    }
+
+    @Test
+    @DisplayName("A partial last record, left by a crash, is cut away before appending")
+    void testPartialRecord() throws IOException {
+        try (var journal = new DeviceJournal(this.file, true)) {
+            Device device = journal.journaled(3, new StandardDevice(policy(true)));
+            device.on();
+            device.off();
+        }
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.WRITE)) {
+            channel.truncate(2 * DeviceJournal.RECORD_SIZE - 7);
+        }
+        try (var journal = new DeviceJournal(this.file, true)) {
+            Device device = journal.journaled(4, new StandardDevice(policy(true)));
+            device.on();
+            device.reset();
+        }
+        List<DeviceJournal.Entry> entries = new ArrayList<>();
+        DeviceJournal.replay(this.file, entries::add);
+
+        assertEquals(List.of(0L, 1L, 2L), entries.stream().map(DeviceJournal.Entry::sequence).toList());
+        assertEquals(List.of(3, 4, 4), entries.stream().map(DeviceJournal.Entry::device).toList());
+        assertEquals(List.of(DeviceJournal.Event.ON, DeviceJournal.Event.ON, DeviceJournal.Event.RESET),
+                entries.stream().map(DeviceJournal.Entry::event).toList());
+        assertTrue(entries.stream().allMatch(e -> e.timeMillis() > 0));
+        assertEquals(3 * DeviceJournal.RECORD_SIZE, Files.size(this.file));
+    }
+
+    @Test
+    @DisplayName("A record with an unknown event is reported as a corrupt journal")
+    void testCorruptRecord() throws IOException {
+        try (var journal = new DeviceJournal(this.file, true)) {
+            journal.journaled(2, new StandardDevice(policy(true))).on();
+        }
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.WRITE)) {
+            // the event of the first record, after its sequence, time and device
+            channel.write(ByteBuffer.wrap(new byte[]{99}), 20);
+        }
+        assertThrows(IOException.class, () -> DeviceJournal.replay(this.file, entry -> {}));
+    }
+}
@@ -0,0 +1,121 @@
+package devices;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeviceStoreTest {
+
+    private static final int SIZE = 1_000;
+
+    @Test
+    @DisplayName("Devices are initially off, and policies must be known")
+    void testInitiallyOff() {
+        var store = new DeviceStore(SIZE, DeviceStore.RANDOM_FAILING);
+        assertEquals(0, store.countOn());
+        assertFalse(store.device(SIZE - 1).isOn());
+        assertThrows(IndexOutOfBoundsException.class, () -> store.device(SIZE));
+        assertThrows(IllegalArgumentException.class, () -> new DeviceStore(SIZE, (byte) 42));
+    }
+
+    @Test
+    @DisplayName("A handle behaves like a StandardDevice")
+    void testHandle() {
+        var store = new DeviceStore(SIZE, DeviceStore.RANDOM_FAILING, RandomSources.seeded(0).get());
+        Device device = store.device(70);
+        while (true) {
+            try {
+                device.on();
+                assertTrue(device.isOn());
+                device.off();
+                assertFalse(device.isOn());
+            } catch (IllegalStateException e) {
+                break;
+            }
+        }
+        // once failed, it keeps failing until reset
+        assertThrows(IllegalStateException.class, device::on);
+        assertEquals("StoredDevice{index=70, policy=random, on=false}", device.toString());
+        device.reset();
+        assertEquals(0, store.countOn());
+    }
+
+    @Test
+    @DisplayName("Bulk operations agree with the single devices")
+    void testBulkOperations() {
+        var never = new DeviceStore(SIZE, DeviceStore.NEVER_FAILING);
+        assertEquals(SIZE, never.onAll().succeeded());
+        assertEquals(SIZE, never.countOn());
+
+        var random = new DeviceStore(SIZE, DeviceStore.RANDOM_FAILING);
+        var result = random.onAll();
+        var failures = result.failures();
+        assertEquals(result.succeeded(), random.countOn());
+        IntStream.range(0, SIZE).forEach(i -> assertEquals(!failures.get(i), random.isOn(i)));
+
+        random.offAll();
+        assertEquals(0, random.countOn());
+        // failed devices keep failing until reset
+        var again = random.onAll().failures();
+        again.and(failures);
+        assertEquals(failures, again);
+        random.resetAll();
+        assertEquals(0, random.countOn());
+    }
+
+    @Test
+    @DisplayName("A mapped store is found as it was left when reattached")
+    void testMappedStore() throws IOException {
+        Path file = Files.createTempDirectory("devices").resolve("store");
+        try {
+            var store = DeviceStore.mapped(file, SIZE, DeviceStore.RANDOM_FAILING);
+            var failures = store.onAll().failures();
+            long on = store.countOn();
+            store.force();
+
+            var reattached = DeviceStore.mapped(file, SIZE, DeviceStore.RANDOM_FAILING);
+            assertEquals(SIZE, reattached.size());
+            assertEquals(on, reattached.countOn());
+            assertEquals("random", reattached.policyName(SIZE - 1));
+            // the failed states are back too: failed devices keep failing
+            var again = reattached.onAll().failures();
+            again.and(failures);
+            assertEquals(failures, again);
+
+            reattached.resetAll();
+            assertEquals(0, DeviceStore.reattach(file).countOn());
+            assertThrows(IllegalArgumentException.class, () -> DeviceStore.mapped(file, SIZE + 1, DeviceStore.RANDOM_FAILING));
+            assertThrows(IllegalArgumentException.class, () -> DeviceStore.mapped(file, SIZE, DeviceStore.NEVER_FAILING));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.getParent());
+        }
+    }
+
+    @Test
+    @DisplayName("A file that does not hold a store is neither reattached nor replaced")
+    void testInvalidFile() throws IOException {
+        Path file = Files.createTempFile("devices", "store");
+        try {
+            // an empty file is taken as a new one
+            assertEquals(0, DeviceStore.mapped(file, SIZE, DeviceStore.NEVER_FAILING).countOn());
+            assertEquals(SIZE, DeviceStore.reattach(file).onAll().succeeded());
+
+            byte[] text = "not a store".getBytes();
+            Files.write(file, text);
+            assertThrows(IllegalArgumentException.class, () -> DeviceStore.reattach(file));
+            assertThrows(IllegalArgumentException.class, () -> DeviceStore.mapped(file, SIZE, DeviceStore.NEVER_FAILING));
+            Files.write(file, new byte[64]);
+            assertThrows(IllegalArgumentException.class, () -> DeviceStore.mapped(file, SIZE, DeviceStore.NEVER_FAILING));
+            assertEquals(64, Files.size(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package devices;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RandomFailingTest {
+
+    private static boolean[] attempts(FailingPolicy policy, int count) {
+        boolean[] results = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            results[i] = policy.attemptOn();
+            if (!results[i]) {
+                policy.reset();
+            }
+        }
+        return results;
+    }
+
+    @Test
+    @DisplayName("Policies from the same seed fail in the same way")
+    void testSeededIsReproducible() {
+        Supplier<RandomGenerator> first = RandomSources.seeded(42);
+        Supplier<RandomGenerator> second = RandomSources.seeded(42);
+        for (int device = 0; device < 10; device++) {
+            boolean[] expected = attempts(new RandomFailing(first.get()), 100);
+            boolean[] actual = attempts(new RandomFailing(second.get()), 100);
+            assertArrayEquals(expected, actual, "device " + device);
+        }
+    }
+
+    @Test
+    @DisplayName("A failed policy keeps failing until reset")
+    void testFailureIsSticky() {
+        FailingPolicy policy = new RandomFailing(RandomSources.seeded(0).get());
+        while (policy.attemptOn()) {}
+        IntStream.range(0, 10).forEach(i -> assertFalse(policy.attemptOn()));
+        // after a reset it succeeds again, sooner or later
+        boolean succeeded = false;
+        for (int i = 0; i < 100 && !succeeded; i++) {
+            policy.reset();
+            succeeded = policy.attemptOn();
+        }
+        assertTrue(succeeded);
+    }
+
+    @Test
+    @DisplayName("The default source draws from the calling thread")
+    void testThreadLocalFromManyThreads() {
+        long successes = IntStream.range(0, 10_000).parallel()
+                .filter(i -> new RandomFailing().attemptOn())
+                .count();
+        assertTrue(successes > 4_000 && successes < 6_000, "successes: " + successes);
+    }
+}
@@ -59,6 +59,16 @@ public class StandardDeviceTest {
             assertThrows(IllegalStateException.class, () -> device.on());
             assertEquals("StandardDevice{policy=mock, on=false}", device.toString());
         }
+
+        @Test
+        @DisplayName("Device reports a failure without throwing")
+        void testTryOn() {
+            when(this.stubFailingPolicy.attemptOn()).thenReturn(false, true);
+            assertEquals(OnResult.FAILED, device.tryOn());
+            assertFalse(device.isOn());
+            assertEquals(OnResult.SWITCHED_ON, device.tryOn());
+            assertTrue(device.isOn());
+        }
     }
 
     @Nested
@@ -0,0 +1,308 @@
+package fuzzing;
+
+import GPTtests.OnResultGPT;
+import GPTtests.RandomFailingGPT;
+import GPTtests.StandardDeviceGPT;
+import devices.ConcurrentStandardDevice;
+import devices.Device;
+import devices.DeviceJournal;
+import devices.DeviceStore;
+import devices.FailingPolicy;
+import devices.OnResult;
+import devices.RandomFailing;
+import devices.StandardDevice;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeviceFuzzTest {
+
+    private static final int CASES = 20_000;
+    private static final int MAX_COMMANDS = 30;
+
+    enum Command { TRY_ON, ON, OFF, RESET, IS_ON }
+
+    // The seed of the random policies, the same for the device and the model
+    record Run(long seed, List<Command> commands) {}
+
+    // What a policy is expected to answer: the random ones draw from a SplittableRandom with the seed of the run
+    interface ModelPolicy {
+        boolean attemptOn();
+
+        void reset();
+
+        // Fails for good the first time the random says so, until reset
+        static ModelPolicy stickyRandom(long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            return new ModelPolicy() {
+                private boolean failed = false;
+
+                @Override
+                public boolean attemptOn() {
+                    this.failed = this.failed || random.nextBoolean();
+                    return !this.failed;
+                }
+
+                @Override
+                public void reset() {
+                    this.failed = false;
+                }
+            };
+        }
+
+        // Each attempt fails or not on its own
+        static ModelPolicy freshRandom(long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            return new ModelPolicy() {
+                @Override
+                public boolean attemptOn() {
+                    return random.nextBoolean();
+                }
+
+                @Override
+                public void reset() {}
+            };
+        }
+
+        static ModelPolicy never() {
+            return new ModelPolicy() {
+                @Override
+                public boolean attemptOn() {
+                    return true;
+                }
+
+                @Override
+                public void reset() {}
+            };
+        }
+    }
+
+    // The device every implementation should behave like, given how its policy answers
+    static final class ModelDevice {
+        private final ModelPolicy policy;
+        // The GPT devices ask their policy once more when reset
+        private final boolean resetAttempts;
+        private boolean on = false;
+
+        ModelDevice(ModelPolicy policy, boolean resetAttempts) {
+            this.policy = policy;
+            this.resetAttempts = resetAttempts;
+        }
+
+        OnResult tryOn() {
+            if (!this.policy.attemptOn()) {
+                return OnResult.FAILED;
+            }
+            this.on = true;
+            return OnResult.SWITCHED_ON;
+        }
+
+        void reset() {
+            if (this.resetAttempts) {
+                this.policy.attemptOn();
+            }
+            this.on = false;
+            this.policy.reset();
+        }
+    }
+
+    // A device implementation and the model it must agree with, both built from the seed of a run
+    record Subject(String name, LongFunction<Device> device, LongFunction<ModelDevice> model) {}
+
+    private static FailingPolicy neverFailing() {
+        return new FailingPolicy() {
+            @Override
+            public boolean attemptOn() {
+                return true;
+            }
+
+            @Override
+            public void reset() {}
+
+            @Override
+            public String policyName() {
+                return "never";
+            }
+        };
+    }
+
+    // The devices of the other hierarchies seen as a devices.Device, keeping their own on(): tryOn tells if it switched on
+    private static Device adapt(BooleanSupplier tryOn, Runnable on, Runnable off, BooleanSupplier isOn, Runnable reset) {
+        return new Device() {
+            @Override
+            public OnResult tryOn() {
+                return tryOn.getAsBoolean() ? OnResult.SWITCHED_ON : OnResult.FAILED;
+            }
+
+            @Override
+            public void on() {
+                on.run();
+            }
+
+            @Override
+            public void off() {
+                off.run();
+            }
+
+            @Override
+            public boolean isOn() {
+                return isOn.getAsBoolean();
+            }
+
+            @Override
+            public void reset() {
+                reset.run();
+            }
+        };
+    }
+
+    // The journaled devices record into the journal given, which the models ignore
+    static List<Subject> subjects(DeviceJournal journal) {
+        LongFunction<ModelDevice> stickyRandom = seed -> new ModelDevice(ModelPolicy.stickyRandom(seed), false);
+        LongFunction<ModelDevice> never = seed -> new ModelDevice(ModelPolicy.never(), false);
+        return List.of(
+                new Subject("StandardDevice, RandomFailing",
+                        seed -> new StandardDevice(new RandomFailing(new SplittableRandom(seed))), stickyRandom),
+                new Subject("StandardDevice, never failing", seed -> new StandardDevice(neverFailing()), never),
+                new Subject("ConcurrentStandardDevice, RandomFailing",
+                        seed -> new ConcurrentStandardDevice(new RandomFailing(new SplittableRandom(seed))), stickyRandom),
+                new Subject("ConcurrentStandardDevice, never failing",
+                        seed -> new ConcurrentStandardDevice(neverFailing()), never),
+                new Subject("DeviceStore, RANDOM_FAILING",
+                        seed -> new DeviceStore(1, DeviceStore.RANDOM_FAILING, new SplittableRandom(seed)).device(0),
+                        stickyRandom),
+                new Subject("DeviceStore, NEVER_FAILING",
+                        seed -> new DeviceStore(1, DeviceStore.NEVER_FAILING, new SplittableRandom(seed)).device(0), never),
+                new Subject("DeviceJournal.journaled, RandomFailing journaled",
+                        seed -> journal.journaled(0, new StandardDevice(
+                                journal.journaled(0, new RandomFailing(new SplittableRandom(seed))))), stickyRandom),
+                new Subject("DeviceJournal.journaled, never failing",
+                        seed -> journal.journaled(1, new StandardDevice(neverFailing())), never),
+                new Subject("revisedDevices.StandardDevice, RandomFailing", seed -> {
+                    var device = new revisedDevices.StandardDevice(new revisedDevices.RandomFailing(new SplittableRandom(seed)));
+                    return adapt(() -> device.tryOn() == revisedDevices.OnResult.SWITCHED_ON, device::on, device::off, device::isOn, device::reset);
+                }, stickyRandom),
+                // Despite its name it never fails: its count of interactions is never incremented
+                new Subject("revisedDevices.StandardDevice, AfterTwoFailing", seed -> {
+                    var device = new revisedDevices.StandardDevice(new revisedDevices.AfterTwoFailing());
+                    return adapt(() -> device.tryOn() == revisedDevices.OnResult.SWITCHED_ON, device::on, device::off, device::isOn, device::reset);
+                }, never),
+                new Subject("StandardDeviceGPT, RandomFailingGPT", seed -> {
+                    var device = new StandardDeviceGPT(new RandomFailingGPT(new SplittableRandom(seed)));
+                    return adapt(() -> device.tryOn() == OnResultGPT.SWITCHED_ON, device::on, device::off, device::isOn, device::reset);
+                }, seed -> new ModelDevice(ModelPolicy.freshRandom(seed), true)));
+    }
+
+    private static Run randomRun(SplittableRandom random) {
+        long seed = random.nextLong();
+        List<Command> commands = new ArrayList<>();
+        for (int i = random.nextInt(1, MAX_COMMANDS + 1); i > 0; i--) {
+            commands.add(Command.values()[random.nextInt(Command.values().length)]);
+        }
+        return new Run(seed, commands);
+    }
+
+    private static String outcome(Runnable on) {
+        try {
+            on.run();
+            return "on";
+        } catch (IllegalStateException e) {
+            return "IllegalStateException";
+        }
+    }
+
+    // The first difference between the model and the device: after each command, isOn must also agree
+    static Optional<String> check(Run run, Subject subject) {
+        Device device = subject.device().apply(run.seed());
+        ModelDevice model = subject.model().apply(run.seed());
+        for (int step = 0; step < run.commands().size(); step++) {
+            Command command = run.commands().get(step);
+            Object expected = null;
+            Object actual = null;
+            try {
+                switch (command) {
+                    case TRY_ON -> {
+                        expected = model.tryOn();
+                        actual = device.tryOn();
+                    }
+                    case ON -> {
+                        expected = model.tryOn() == OnResult.FAILED ? "IllegalStateException" : "on";
+                        actual = outcome(device::on);
+                    }
+                    case OFF -> {
+                        model.on = false;
+                        device.off();
+                    }
+                    case RESET -> {
+                        model.reset();
+                        device.reset();
+                    }
+                    default -> {
+                        expected = model.on;
+                        actual = device.isOn();
+                    }
+                }
+            } catch (RuntimeException e) {
+                return Optional.of("step " + step + " " + command + " threw " + e);
+            }
+            if (!Objects.equals(expected, actual)) {
+                return Optional.of("step " + step + " " + command + ": expected " + expected + ", got " + actual);
+            }
+            if (model.on != device.isOn()) {
+                return Optional.of("step " + step + " " + command + ": expected on " + model.on + ", got " + device.isOn());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Fuzzer<Run> fuzzer(Subject subject) {
+        return new Fuzzer<>(DeviceFuzzTest::randomRun, run -> check(run, subject),
+                run -> Fuzzer.removals(run.commands()).map(commands -> new Run(run.seed(), commands)));
+    }
+
+    @Test
+    @DisplayName("Every device and policy pair behaves like the model on random runs")
+    void testSubjectsAgainstModel(TestReporter reporter) throws IOException {
+        Path file = Files.createTempFile("fuzzing", ".journal");
+        try (var journal = new DeviceJournal(file, false)) {
+            for (Subject subject : subjects(journal)) {
+                var report = fuzzer(subject).run(CASES, 0);
+                reporter.publishEntry(subject.name(), report.toString());
+                assertEquals(Optional.empty(), report.counterexample(), subject.name() + ": " + report);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("BrokenDevice is caught, with a minimal counterexample")
+    void testBrokenDevice() {
+        Subject broken = new Subject("BrokenDevice, RandomFailing", seed -> {
+            var device = new revisedDevices.BrokenDevice(new revisedDevices.RandomFailing(new SplittableRandom(seed)));
+            return adapt(() -> device.tryOn() == revisedDevices.OnResult.SWITCHED_ON, device::on, device::off, device::isOn, device::reset);
+        }, seed -> new ModelDevice(ModelPolicy.stickyRandom(seed), false));
+        var counterexample = fuzzer(broken).run(CASES, 0).counterexample().orElseThrow();
+        List<Command> shrunk = counterexample.shrunk().commands();
+        // The device stays off exactly when it should have switched on
+        assertTrue(List.of(Command.TRY_ON, Command.ON).contains(shrunk.get(shrunk.size() - 1)), counterexample.toString());
+        for (int i = 0; i < shrunk.size(); i++) {
+            List<Command> smaller = new ArrayList<>(shrunk);
+            smaller.remove(i);
+            assertEquals(Optional.empty(), check(new Run(counterexample.seed(), smaller), broken));
+        }
+    }
+}
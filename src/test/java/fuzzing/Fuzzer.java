@@ -0,0 +1,112 @@
+package fuzzing;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/*
+ * Model-based fuzzing: random inputs (typically sequences of operations) are generated and checked by a property,
+ * usually running them on an implementation and on a reference model, in parallel across the cores.
+ * Case i is generated from a seed derived from the run seed and i only, so a run is reproducible whatever the
+ * parallelism, and the counterexample reported is always the failing case with the lowest index, shrunk greedily
+ * until no smaller input fails.
+ */
+
+public final class Fuzzer<T> {
+
+    private final Function<SplittableRandom, T> generator;
+    // A description of what went wrong, empty if the input passes
+    private final Function<T, Optional<String>> property;
+    // Inputs smaller than the given one, the most promising first
+    private final Function<T, Stream<T>> shrinker;
+
+    public Fuzzer(Function<SplittableRandom, T> generator, Function<T, Optional<String>> property,
+                  Function<T, Stream<T>> shrinker) {
+        this.generator = generator;
+        this.property = property;
+        this.shrinker = shrinker;
+    }
+
+    private static long caseSeed(long seed, int index) {
+        return new SplittableRandom(seed + index).nextLong();
+    }
+
+    public Report<T> run(int cases, long seed) {
+        long start = System.nanoTime();
+        LongAdder executions = new LongAdder();
+        AtomicInteger firstFailing = new AtomicInteger(Integer.MAX_VALUE);
+        IntStream.range(0, cases).parallel().forEach(i -> {
+            // Cases after a failing one cannot be reported anymore, the ones before it still run
+            if (i > firstFailing.get()) {
+                return;
+            }
+            executions.increment();
+            T input = this.generator.apply(new SplittableRandom(caseSeed(seed, i)));
+            if (this.property.apply(input).isPresent()) {
+                firstFailing.accumulateAndGet(i, Math::min);
+            }
+        });
+        Optional<Counterexample<T>> counterexample = Optional.empty();
+        if (firstFailing.get() != Integer.MAX_VALUE) {
+            long failingSeed = caseSeed(seed, firstFailing.get());
+            T original = this.generator.apply(new SplittableRandom(failingSeed));
+            T shrunk = this.shrink(original);
+            counterexample = Optional.of(new Counterexample<>(failingSeed, original, shrunk, this.property.apply(shrunk).orElseThrow()));
+        }
+        return new Report<>(executions.sum(), System.nanoTime() - start, counterexample);
+    }
+
+    private T shrink(T failing) {
+        T current = failing;
+        boolean shrunk = true;
+        while (shrunk) {
+            shrunk = false;
+            for (Iterator<T> candidates = this.shrinker.apply(current).iterator(); candidates.hasNext(); ) {
+                T candidate = candidates.next();
+                if (this.property.apply(candidate).isPresent()) {
+                    current = candidate;
+                    shrunk = true;
+                    break;
+                }
+            }
+        }
+        return current;
+    }
+
+    // The list without a chunk: half of it at first, down to single elements
+    public static <C> Stream<List<C>> removals(List<C> list) {
+        Stream.Builder<List<C>> candidates = Stream.builder();
+        for (int chunk = Math.max(1, list.size() / 2); chunk >= 1; chunk /= 2) {
+            for (int from = 0; from + chunk <= list.size(); from += chunk) {
+                List<C> candidate = new ArrayList<>(list.subList(0, from));
+                candidate.addAll(list.subList(from + chunk, list.size()));
+                candidates.add(candidate);
+            }
+        }
+        return candidates.build();
+    }
+
+    public record Counterexample<T>(long seed, T original, T shrunk, String failure) {}
+
+    public record Report<T>(long executions, long nanos, Optional<Counterexample<T>> counterexample) {
+
+        public double executionsPerSecond() {
+            return this.executions * 1e9 / this.nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d executions in %.3f s: %.0f executions/s", this.executions, this.nanos / 1e9,
+                    this.executionsPerSecond())
+                    + this.counterexample.map(c -> ", failing with seed " + c.seed() + ": " + c.shrunk() + " (" + c.failure() + ")")
+                    .orElse(", no failures");
+        }
+    }
+}
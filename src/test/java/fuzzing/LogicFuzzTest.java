@@ -0,0 +1,179 @@
+package fuzzing;
+
+import a01a.sol2.Log;
+import a01a.sol2.Logic;
+import a01a.sol2.LogicMode;
+import a01a.sol2.Position;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogicFuzzTest {
+
+    private static final int CASES = 5_000;
+    private static final int MAX_COMMANDS = 40;
+    private static final int MAX_SIZE = 12;
+
+    enum Kind { HIT, HIT_PRIMITIVE, GET_MARK, GET_MARK_PRIMITIVE, IS_OVER, CHANGES, SNAPSHOT }
+
+    record Command(Kind kind, int x, int y) {
+        @Override
+        public String toString() {
+            return this.kind + "(" + this.x + "," + this.y + ")";
+        }
+    }
+
+    record Game(int size, List<Command> commands) {}
+
+    // Coordinates one cell past the board too, where marks go when they leave it
+    private static Game randomGame(SplittableRandom random) {
+        int size = random.nextInt(1, MAX_SIZE + 1);
+        List<Command> commands = new ArrayList<>();
+        for (int i = random.nextInt(1, MAX_COMMANDS + 1); i > 0; i--) {
+            Kind kind = Kind.values()[random.nextInt(Kind.values().length)];
+            commands.add(new Command(kind, random.nextInt(-1, size + 1), random.nextInt(-1, size + 1)));
+        }
+        return new Game(size, commands);
+    }
+
+    // The first difference between the model and the Logic: after each command, isOver and changes must also agree
+    static Optional<String> check(Game game, IntFunction<Logic> factory) {
+        ModelLogic model = new ModelLogic(game.size());
+        Logic logic;
+        try {
+            logic = factory.apply(game.size());
+        } catch (RuntimeException e) {
+            return Optional.of("creating the game: " + e);
+        }
+        for (int step = 0; step < game.commands().size(); step++) {
+            Command command = game.commands().get(step);
+            Position position = new Position(command.x(), command.y());
+            Object expected;
+            Object actual;
+            try {
+                switch (command.kind()) {
+                    case HIT -> {
+                        expected = model.hit(position);
+                        actual = logic.hit(position);
+                    }
+                    case HIT_PRIMITIVE -> {
+                        expected = model.hit(position).orElse(0);
+                        actual = logic.hit(command.x(), command.y());
+                    }
+                    case GET_MARK -> {
+                        expected = model.getMark(position);
+                        actual = logic.getMark(position);
+                    }
+                    case GET_MARK_PRIMITIVE -> {
+                        expected = model.getMark(position).orElse(0);
+                        actual = logic.getMark(command.x(), command.y());
+                    }
+                    case IS_OVER -> {
+                        expected = model.isOver();
+                        actual = logic.isOver();
+                    }
+                    case CHANGES -> {
+                        expected = model.changes();
+                        actual = logic.changes();
+                    }
+                    default -> {
+                        int[] board = new int[game.size() * game.size()];
+                        logic.snapshot(board);
+                        expected = Arrays.toString(model.snapshot());
+                        actual = Arrays.toString(board);
+                    }
+                }
+            } catch (RuntimeException e) {
+                return Optional.of("step " + step + " " + command + " threw " + e);
+            }
+            if (!Objects.equals(expected, actual)) {
+                return Optional.of("step " + step + " " + command + ": expected " + expected + ", got " + actual);
+            }
+            if (model.isOver() != logic.isOver() || !model.changes().equals(logic.changes())) {
+                return Optional.of("step " + step + " " + command + ": expected over " + model.isOver()
+                        + " and changes " + model.changes() + ", got " + logic.isOver() + " and " + logic.changes());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Fuzzer<Game> fuzzer(IntFunction<Logic> factory) {
+        return new Fuzzer<>(LogicFuzzTest::randomGame, game -> check(game, factory),
+                game -> Fuzzer.removals(game.commands()).map(commands -> new Game(game.size(), commands)));
+    }
+
+    @BeforeEach
+    void setUpLogging() {
+        Logger.getLogger(Log.class.getPackageName()).setLevel(Level.OFF);
+    }
+
+    @AfterEach
+    void tearDownLogging() {
+        Logger.getLogger(Log.class.getPackageName()).setLevel(null);
+    }
+
+    @Test
+    @DisplayName("Every Logic mode plays like the model on random games")
+    void testModesAgainstModel(TestReporter reporter) {
+        for (LogicMode mode : LogicMode.values()) {
+            var report = fuzzer(mode::create).run(CASES, 0);
+            reporter.publishEntry(mode.name(), report.toString());
+            assertEquals(Optional.empty(), report.counterexample(), mode + ": " + report);
+        }
+    }
+
+    @Test
+    @DisplayName("A Logic that never starts moving is caught, with a minimal counterexample")
+    void testShrinking() {
+        // Hits on a marked cell are ignored, instead of moving the marks
+        IntFunction<Logic> broken = size -> new Logic() {
+            private final Logic delegate = LogicMode.STANDARD.create(size);
+
+            @Override
+            public Optional<Integer> hit(Position position) {
+                return this.delegate.getMark(position).isPresent() ? Optional.empty() : this.delegate.hit(position);
+            }
+
+            @Override
+            public Optional<Integer> getMark(Position position) {
+                return this.delegate.getMark(position);
+            }
+
+            @Override
+            public boolean isOver() {
+                return this.delegate.isOver();
+            }
+
+            @Override
+            public Set<Position> changes() {
+                return this.delegate.changes();
+            }
+        };
+        var report = fuzzer(broken).run(CASES, 0);
+        var counterexample = report.counterexample().orElseThrow();
+        List<Command> shrunk = counterexample.shrunk().commands();
+        assertTrue(counterexample.original().commands().size() >= shrunk.size());
+        // Shrinking stops at a counterexample that passes without any one of its commands
+        for (int i = 0; i < shrunk.size(); i++) {
+            List<Command> smaller = new ArrayList<>(shrunk);
+            smaller.remove(i);
+            assertEquals(Optional.empty(), check(new Game(counterexample.shrunk().size(), smaller), broken));
+        }
+        assertTrue(check(counterexample.shrunk(), broken).isPresent());
+    }
+}
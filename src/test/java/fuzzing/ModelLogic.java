@@ -0,0 +1,71 @@
+package fuzzing;
+
+import a01a.sol2.Position;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/*
+ * The rules of the game as plainly as they can be written, with no index nor cache: the reference the
+ * implementations of Logic are fuzzed against.
+ */
+
+class ModelLogic {
+
+    private final int size;
+    private final List<Position> marks = new ArrayList<>();
+    private boolean moving = false;
+    private Set<Position> changes = Set.of();
+
+    ModelLogic(int size) {
+        this.size = size;
+    }
+
+    Optional<Integer> hit(Position position) {
+        this.changes = new HashSet<>();
+        if (this.isOver()) {
+            return Optional.empty();
+        }
+        this.moving = this.moving || this.marks.stream()
+                .anyMatch(p -> Math.abs(p.x() - position.x()) <= 1 && Math.abs(p.y() - position.y()) <= 1);
+        if (this.moving) {
+            for (int i = 0; i < this.marks.size(); i++) {
+                Position p = this.marks.get(i);
+                Position moved = new Position(p.x() + 1, p.y() - 1);
+                this.changes.add(p);
+                this.changes.add(moved);
+                this.marks.set(i, moved);
+            }
+            return Optional.empty();
+        }
+        this.marks.add(position);
+        this.changes.add(position);
+        return Optional.of(this.marks.size());
+    }
+
+    Optional<Integer> getMark(Position position) {
+        int index = this.marks.indexOf(position);
+        return index < 0 ? Optional.empty() : Optional.of(index + 1);
+    }
+
+    boolean isOver() {
+        return this.marks.stream().anyMatch(p -> p.x() == this.size || p.y() == -1);
+    }
+
+    Set<Position> changes() {
+        return this.changes;
+    }
+
+    int[] snapshot() {
+        int[] board = new int[this.size * this.size];
+        for (int x = 0; x < this.size; x++) {
+            for (int y = 0; y < this.size; y++) {
+                board[x * this.size + y] = this.getMark(new Position(x, y)).orElse(0);
+            }
+        }
+        return board;
+    }
+}
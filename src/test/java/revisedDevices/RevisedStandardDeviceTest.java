@@ -33,4 +33,14 @@ public class RevisedStandardDeviceTest extends RevisedDevicesBlueprintTest{
         assertEquals("StandardDevice{policy=mock, on=false}", device.toString());
     }
 
+    @Test
+    @DisplayName("Device reports a failure without throwing")
+    void testTryOn() {
+        when(this.failingPolicy.attemptOn()).thenReturn(false, true);
+        assertEquals(OnResult.FAILED, device.tryOn());
+        assertFalse(device.isOn());
+        assertEquals(OnResult.SWITCHED_ON, device.tryOn());
+        assertTrue(device.isOn());
+    }
+
 }
@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Assertions.{assertEquals, assertFalse, assertTrue}
+import org.junit.jupiter.api.Test
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+class DeviceFleetScalaTest {
+
+  private val timeout = 10.seconds
+
+  private def policy(succeeds: Boolean): FailingPolicyScala = new FailingPolicyScala {
+    override def attemptOn(): Boolean = succeeds
+    override def reset(): Unit = {}
+    override def policyName(): String = if (succeeds) "never" else "always"
+  }
+
+  @Test
+  def testBatches(): Unit = {
+    // Odd devices always fail, over shards of different sizes
+    val fleet = new DeviceFleetScala(Vector.tabulate(1001)(i => new StandardDeviceScala(policy(i % 2 == 0))), 8)
+    val result = Await.result(fleet.tryOnAll(), timeout)
+    assertEquals(1001, result.commands)
+    assertEquals(500, result.failures.size)
+    assertTrue(result.failures.forall(_ % 2 == 1))
+
+    val snapshot = fleet.snapshot()
+    assertEquals(501, snapshot.countOn)
+    assertTrue(snapshot.isOn(1000))
+    assertFalse(fleet.isOn(999))
+
+    // Commands run in order for each device
+    Await.result(fleet.submit(Seq(0 -> DeviceCommandScala.Off, 2 -> DeviceCommandScala.Off, 0 -> DeviceCommandScala.TryOn)), timeout)
+    assertTrue(fleet.isOn(0))
+    assertFalse(fleet.isOn(2))
+    // The old snapshot does not change
+    assertTrue(snapshot.isOn(2))
+
+    Await.result(fleet.resetAll(), timeout)
+    assertEquals(0, fleet.snapshot().countOn)
+    fleet.shutdown()
+  }
+
+  @Test
+  def testConcurrentBatches(): Unit = {
+    val fleet = DeviceFleetScala(10000, 16, () => policy(succeeds = true))
+    val batches = (0 until 100).map(b => fleet.submit((b until 10000 by 100).map(_ -> DeviceCommandScala.TryOn)))
+    batches.foreach(Await.result(_, timeout))
+    assertEquals(10000, fleet.snapshot().countOn)
+    fleet.shutdown()
+  }
+}